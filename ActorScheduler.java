@@ -0,0 +1,178 @@
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The ActorScheduler class runs the players of a game as actors on a fixed number of worker threads.
+ * A player is only queued to run when it may be able to take a turn: when a card is added to its
+ * left deck, or a card is taken from its right deck. Once queued, it takes turns with
+ * {@link Player#tryTakeTurn()} until it has nothing to draw or nowhere to discard, or until it has
+ * taken {@link #TURNS_PER_RUN} turns and goes to the back of the queue so other players get a turn.
+ * Idle players are not on any thread, so the number of threads is the number of workers however
+ * many players there are.
+ * <p>
+ * The first actor to find the game over queues one stop marker per worker, and each worker returns
+ * when it takes one.
+ */
+public class ActorScheduler {
+    /**
+     * The most turns a player takes each time it runs before it makes way for the next player in the queue.
+     */
+    public static final int TURNS_PER_RUN = 64;
+
+    /**
+     * The players waiting for a worker, in order.
+     */
+    private final LinkedBlockingQueue<Actor> runQueue = new LinkedBlockingQueue<>();
+
+    /**
+     * Taken by a worker to stop it.
+     */
+    private final Actor stop = new Actor(null, null, null);
+
+    /**
+     * Flag making sure the workers are only stopped once.
+     */
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    /**
+     * The game being run.
+     */
+    private final CardGame cardGame;
+
+    /**
+     * The number of worker threads.
+     */
+    private final int workers;
+
+    /**
+     * Constructs a scheduler for the players of a game and queues every player once, as any of
+     * them may be able to take a turn at the start. The decks' listeners are set to queue the
+     * players, so this must be called before the game starts.
+     *
+     * @param cardGame the game being run
+     * @param players the players, in ring order
+     * @param decks the decks, in ring order; player i draws from deck i and discards to deck i + 1
+     * @param workers the number of worker threads
+     */
+    public ActorScheduler(CardGame cardGame, List<Player> players, List<CardDeck> decks, int workers) {
+        this.cardGame = cardGame;
+        this.workers = workers;
+        int noOfPlayers = players.size();
+        for (int i = 0; i < noOfPlayers; i++) {
+            CardDeck leftDeck = decks.get(i);
+            CardDeck rightDeck = decks.get((i + 1) % noOfPlayers);
+            Actor actor = new Actor(players.get(i), leftDeck, rightDeck);
+            leftDeck.setCardListener(actor::schedule);
+            rightDeck.setRoomListener(actor::schedule);
+            actor.schedule();
+        }
+    }
+
+    /**
+     * Creates the tasks the worker threads run, each taking players off the queue until stopped.
+     *
+     * @return one task per worker
+     */
+    public List<Runnable> workerTasks() {
+        ArrayList<Runnable> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            tasks.add(this::work);
+        }
+        return tasks;
+    }
+
+    /**
+     * Runs queued players until a stop marker is taken or the thread is interrupted.
+     */
+    private void work() {
+        while (true) {
+            Actor actor;
+            try {
+                actor = runQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (actor == stop) {
+                return;
+            }
+            actor.run();
+        }
+    }
+
+    /**
+     * Queues one stop marker per worker, the first time it is called.
+     */
+    private void stopWorkers() {
+        if (stopped.compareAndSet(false, true)) {
+            for (int w = 0; w < workers; w++) {
+                runQueue.add(stop);
+            }
+        }
+    }
+
+    /**
+     * A player together with whether it is queued or running.
+     */
+    private final class Actor implements Runnable {
+        /**
+         * The player whose turns this actor takes.
+         */
+        private final Player player;
+
+        /**
+         * The deck the player draws from.
+         */
+        private final CardDeck leftDeck;
+
+        /**
+         * The deck the player discards to.
+         */
+        private final CardDeck rightDeck;
+
+        /**
+         * Whether the actor is queued or running; a player is never queued twice.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Actor(Player player, CardDeck leftDeck, CardDeck rightDeck) {
+            this.player = player;
+            this.leftDeck = leftDeck;
+            this.rightDeck = rightDeck;
+        }
+
+        /**
+         * Queues the actor unless it is already queued or running.
+         */
+        void schedule() {
+            if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+                runQueue.add(this);
+            }
+        }
+
+        /**
+         * Takes turns for the player while it can, then either queues the actor again or leaves it idle.
+         */
+        @Override
+        public void run() {
+            int turns = 0;
+            while (turns < TURNS_PER_RUN && player.tryTakeTurn()) {
+                turns++;
+            }
+            if (!cardGame.isGameInProgress()) {
+                stopWorkers();
+                return;
+            }
+            scheduled.set(false);
+            // Pairs with the fence a deck runs before its listeners, so a card added or taken after
+            // the last turn either sees the actor idle and queues it, or is seen here
+            VarHandle.fullFence();
+            if (leftDeck.size() > 0 && rightDeck.hasRoom()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The ArenaEngine class plays a card game whose hands and decks live in a {@link GameArena}, for
+ * games with so many players that a {@link Player} and {@link CardDeck} object each would not fit.
+ * Players take the same turns as {@link Player#tryTakeTurn()}: a turn is only taken when the left
+ * deck has a card and the right deck has room for the discard. Each segment plays its players'
+ * turns with one {@link Hand}, loaded from and stored back to the arena around every turn, so the
+ * players follow exactly the strategy of a {@link Player} without an object each. No output files
+ * are written; the final hands and decks can be read back from the engine.
+ * <p>
+ * The ring of players is split into contiguous segments, each played by one task that gives its
+ * players a turn in order, as a {@link RingSegment} does. A segment with nothing to do spins,
+ * yields and then sleeps briefly until a neighbouring segment moves a card on a boundary deck.
+ */
+public class ArenaEngine {
+    /**
+     * The value of {@link #outcome} once the game has been abandoned without a winner.
+     */
+    private static final int ABANDONED = -1;
+
+    /**
+     * The number of idle passes a segment spins for before it starts yielding.
+     */
+    private static final int SPINS = 64;
+
+    /**
+     * The number of idle passes a segment yields for before it starts sleeping.
+     */
+    private static final int YIELDS = 256;
+
+    /**
+     * How long an idle segment sleeps between passes, in nanoseconds.
+     */
+    private static final long IDLE_NANOS = 50_000;
+
+    /**
+     * The hands and decks of the game.
+     */
+    private final GameArena arena;
+
+    /**
+     * Number of players in the game.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The index of the winning player, 0 while the game is in progress, or {@link #ABANDONED}.
+     */
+    private final AtomicInteger outcome = new AtomicInteger();
+
+    /**
+     * The number of turns each player may take before the game is abandoned without a winner.
+     */
+    private long turnBudget = Long.MAX_VALUE;
+
+    /**
+     * Flag making sure the game is only run once.
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * Constructs an engine for a dealt pack, putting the cards in a new arena.
+     *
+     * @param dealtPack the starting hands and deck contents
+     */
+    public ArenaEngine(DealtPack dealtPack) {
+        this.arena = new GameArena(dealtPack);
+        this.noOfPlayers = arena.getNoOfPlayers();
+        if (!dealtPack.isWinnable()) {
+            outcome.set(ABANDONED);
+        }
+    }
+
+    /**
+     * Limits the number of turns each player may take; the first player to use up the budget
+     * abandons the game without a winner.
+     *
+     * @param turnsPerPlayer the number of turns each player may take
+     * @throws IllegalArgumentException if the budget is negative
+     * @throws IllegalStateException if the game has already been run
+     */
+    public void setTurnBudget(long turnsPerPlayer) {
+        if (turnsPerPlayer < 0) {
+            throw new IllegalArgumentException("The turn budget cannot be negative: " + turnsPerPlayer);
+        }
+        if (started.get()) {
+            throw new IllegalStateException("The turn budget must be set before the game is run");
+        }
+        turnBudget = turnsPerPlayer;
+    }
+
+    /**
+     * Gets the arena holding the hands and decks of the game.
+     *
+     * @return the arena
+     */
+    public GameArena getArena() {
+        return arena;
+    }
+
+    /**
+     * Plays the game on the calling thread until somebody wins or the game is abandoned.
+     *
+     * @return the result of the game
+     * @throws IllegalStateException if the game has already been run
+     */
+    public GameResult run() {
+        return run(1, Runnable::run);
+    }
+
+    /**
+     * Plays the game with the ring of players split into segments, each run by one task on the
+     * given executor, and waits for it to finish. An engine can only be run once.
+     *
+     * @param segments the number of segments, usually the number of cores; at most one per player
+     * @param executor the executor the segments run on, which must be able to run them all at once
+     * @return the result of the game
+     * @throws IllegalArgumentException if the number of segments is not positive
+     * @throws IllegalStateException if the game has already been run
+     */
+    public GameResult run(int segments, Executor executor) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("A game needs at least one segment: " + segments);
+        }
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The game has already been run");
+        }
+        long startTime = System.nanoTime();
+        segments = Math.min(segments, noOfPlayers);
+        CountDownLatch finished = new CountDownLatch(segments);
+        for (int s = 0; s < segments; s++) {
+            int from = (int) ((long) noOfPlayers * s / segments);
+            int to = (int) ((long) noOfPlayers * (s + 1) / segments);
+            executor.execute(() -> {
+                try {
+                    playSegment(from, to);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long totalTurns = 0;
+        for (int p = 0; p < noOfPlayers; p++) {
+            totalTurns += arena.turnsTaken(p);
+        }
+        return new GameResult(noOfPlayers, Math.max(0, outcome.get()), totalTurns, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Gets the face values of a player's hand in the current state of the game.
+     *
+     * @param playerIndex the index of the player
+     * @return the face values in hand order
+     */
+    public int[] handOf(int playerIndex) {
+        return arena.handOf(playerIndex - 1);
+    }
+
+    /**
+     * Gets the face values of a deck in the current state of the game.
+     *
+     * @param deckIndex the index of the deck
+     * @return the face values from top to bottom
+     */
+    public int[] deckOf(int deckIndex) {
+        return arena.deckOf(deckIndex - 1);
+    }
+
+    /**
+     * Gives the players of a segment a turn each in order until the game is over or the thread is interrupted.
+     *
+     * @param from the zero-based index of the first player of the segment
+     * @param to one past the zero-based index of the last player of the segment
+     */
+    private void playSegment(int from, int to) {
+        int idlePasses = 0;
+        Thread thread = Thread.currentThread();
+        Hand hand = new Hand(from + 1);
+        while (outcome.get() == 0 && !thread.isInterrupted()) {
+            boolean progress = false;
+            for (int p = from; p < to && outcome.get() == 0; p++) {
+                progress |= tryTakeTurn(p, hand);
+            }
+            if (progress) {
+                idlePasses = 0;
+            } else if (++idlePasses < SPINS) {
+                Thread.onSpinWait();
+            } else if (idlePasses < YIELDS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Takes a turn for a player if it can be taken straight away: the player draws the top card of
+     * their left deck, discards the first card that is not their own value to the bottom of their
+     * right deck, and wins with four equal cards.
+     *
+     * @param player the zero-based index of the player
+     * @param hand the hand the segment plays its turns with, whose previous cards are discarded
+     * @return {@code true} if a turn was taken
+     */
+    private boolean tryTakeTurn(int player, Hand hand) {
+        if (arena.turnsTaken(player) >= turnBudget) {
+            outcome.compareAndSet(0, ABANDONED);
+            return false;
+        }
+        int right = player + 1 == noOfPlayers ? 0 : player + 1;
+        if (!arena.hasRoom(right) || !arena.hasCard(player)) {
+            return false;
+        }
+        hand.reset(player + 1);
+        for (int i = 0; i < 4; i++) {
+            hand.add(arena.handCard(player, i));
+        }
+        hand.add(arena.takeCard(player));
+        int discarded = hand.discard();
+        for (int i = 0; i < 4; i++) {
+            arena.setHandCard(player, i, hand.get(i));
+        }
+        arena.addCard(right, discarded);
+        arena.countTurn(player);
+
+        if (hand.isWinning()) {
+            outcome.compareAndSet(0, player + 1);
+        }
+        return true;
+    }
+}
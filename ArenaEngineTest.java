@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArenaEngineTest {
+
+    /**
+     * A two player pack in which player 1 wins on their first turn.
+     */
+    private static final int[] PACK = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+
+    @Test
+    void testFirstTurnWin() {
+        ArenaEngine engine = new ArenaEngine(DealtPack.of(PACK, 2));
+        GameResult result = engine.run();
+        assertEquals(1, result.getWinnerIndex());
+        assertEquals(1, result.getTotalTurns());
+        assertArrayEquals(new int[] {1, 1, 1, 1}, engine.handOf(1));
+        assertArrayEquals(new int[] {3, 2, 3, 4, 3}, engine.deckOf(2));
+    }
+
+    @Test
+    void testSegmentedGameKeepsEveryCard() {
+        int noOfPlayers = 64;
+        DealtPack dealtPack = new PackGenerator(noOfPlayers, 7).dealtPack(0);
+        ArenaEngine engine = new ArenaEngine(dealtPack);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        GameResult result;
+        try {
+            result = engine.run(4, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(result.hasWinner());
+        int[] winningHand = engine.handOf(result.getWinnerIndex());
+        for (int faceValue : winningHand) {
+            assertEquals(winningHand[0], faceValue);
+        }
+
+        int[] counts = new int[2 * noOfPlayers + 1];
+        long totalTurns = 0;
+        for (int i = 1; i <= noOfPlayers; i++) {
+            for (int faceValue : engine.handOf(i)) {
+                counts[faceValue]++;
+            }
+            for (int faceValue : engine.deckOf(i)) {
+                counts[faceValue]++;
+            }
+            totalTurns += engine.getArena().turnsTaken(i - 1);
+        }
+        for (int value = 1; value < counts.length; value++) {
+            assertEquals(4, counts[value]);
+        }
+        assertEquals(totalTurns, result.getTotalTurns());
+    }
+
+    @Test
+    void testTurnBudgetAbandonsGame() {
+        ArenaEngine engine = new ArenaEngine(DealtPack.of(PACK, 2));
+        engine.setTurnBudget(0);
+        GameResult result = engine.run();
+        assertFalse(result.hasWinner());
+        assertEquals(0, result.getTotalTurns());
+        assertThrows(IllegalArgumentException.class, () -> engine.setTurnBudget(-1));
+    }
+
+    @Test
+    void testRunsOnlyOnce() {
+        ArenaEngine engine = new ArenaEngine(DealtPack.of(PACK, 2));
+        engine.run();
+        assertThrows(IllegalStateException.class, engine::run);
+        assertThrows(IllegalStateException.class, () -> engine.setTurnBudget(10));
+        assertEquals(1, engine.getArena().turnsTaken(0));
+    }
+
+    @Test
+    void testUnwinnablePackTakesNoTurns() {
+        int[] pack = {1, 2, 3, 4, 5, 6, 7, 8, 1, 2, 3, 4, 5, 6, 7, 8};
+        GameResult result = new ArenaEngine(DealtPack.of(pack, 2)).run();
+        assertFalse(result.hasWinner());
+        assertEquals(0, result.getTotalTurns());
+    }
+
+    @Test
+    void testSegmentsMustBePositive() {
+        ArenaEngine engine = new ArenaEngine(DealtPack.of(PACK, 2));
+        assertThrows(IllegalArgumentException.class, () -> engine.run(0, Runnable::run));
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * The BinaryOutputSink class records a player's actions as fixed-width binary records, which
+ * {@link LogRenderer} turns back into the text of the output files when a game is investigated.
+ * <p>
+ * Each record is {@link #RECORD_SIZE} bytes: a type byte, three reserved zero bytes, then the turn,
+ * player, card and deck as big-endian ints. A player's file starts with an {@link #INITIAL} record
+ * followed by a {@link #CARD} record per card of the dealt hand, has a {@link #DRAW} and a
+ * {@link #DISCARD} record per turn, and ends with a {@link #FINAL} record, whose card is the index
+ * of the winner, followed by a {@link #CARD} record per card of the final hand. The current hand
+ * after each turn is not recorded, since it follows from replaying the draws and discards.
+ * A deck's file is a {@link #DECK} record followed by a {@link #CARD} record per card in the deck.
+ */
+public class BinaryOutputSink extends OutputSink {
+    /**
+     * The size of a record in bytes.
+     */
+    public static final int RECORD_SIZE = 20;
+
+    /**
+     * The record type that starts a player's dealt hand.
+     */
+    public static final byte INITIAL = 1;
+
+    /**
+     * The record type of a player drawing a card from a deck.
+     */
+    public static final byte DRAW = 2;
+
+    /**
+     * The record type of a player discarding a card to a deck.
+     */
+    public static final byte DISCARD = 3;
+
+    /**
+     * The record type that starts a player's final hand; its card is the index of the winner.
+     */
+    public static final byte FINAL = 4;
+
+    /**
+     * The record type of one card of the hand or deck started by the record before it.
+     */
+    public static final byte CARD = 5;
+
+    /**
+     * The record type that starts the contents of a deck.
+     */
+    public static final byte DECK = 6;
+
+    /**
+     * Constructs a sink for a player's binary output file.
+     *
+     * @param gameLog the log the chunks are handed to
+     * @param fileName the name of the output file
+     */
+    BinaryOutputSink(GameLog gameLog, String fileName) {
+        super(gameLog, fileName);
+    }
+
+    @Override
+    public void initialHand(int player, int[] cards, int size) {
+        lock.lock();
+        try {
+            reserve((size + 1) * RECORD_SIZE);
+            length = putRecord(chunk, length, INITIAL, 0, player, 0, 0);
+            for (int i = 0; i < size; i++) {
+                length = putRecord(chunk, length, CARD, 0, player, cards[i], 0);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void draw(int turn, int player, int card, int deck) {
+        lock.lock();
+        try {
+            reserve(RECORD_SIZE);
+            length = putRecord(chunk, length, DRAW, turn, player, card, deck);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void discard(int turn, int player, int card, int deck) {
+        lock.lock();
+        try {
+            reserve(RECORD_SIZE);
+            length = putRecord(chunk, length, DISCARD, turn, player, card, deck);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void currentHand(int turn, int player, int[] cards, int size) {
+        // Rebuilt by the renderer from the draws and discards
+    }
+
+    @Override
+    public void finalHand(int turn, int player, int winner, int[] cards, int size) {
+        lock.lock();
+        try {
+            reserve((size + 1) * RECORD_SIZE);
+            length = putRecord(chunk, length, FINAL, turn, player, winner, 0);
+            for (int i = 0; i < size; i++) {
+                length = putRecord(chunk, length, CARD, turn, player, cards[i], 0);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encodes the binary file of a deck.
+     *
+     * @param deck the index of the deck
+     * @param cards the face values of the cards in the deck, from top to bottom
+     * @return the contents of the file
+     */
+    public static byte[] deckRecords(int deck, int[] cards) {
+        byte[] bytes = new byte[(cards.length + 1) * RECORD_SIZE];
+        int offset = putRecord(bytes, 0, DECK, 0, 0, 0, deck);
+        for (int card : cards) {
+            offset = putRecord(bytes, offset, CARD, 0, 0, card, deck);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes a record.
+     *
+     * @param bytes the array to encode into
+     * @param offset the offset of the record in the array
+     * @param type the type of the record
+     * @param turn the turn of the player
+     * @param player the index of the player
+     * @param card the face value of the card
+     * @param deck the index of the deck
+     * @return the offset just past the record
+     */
+    private static int putRecord(byte[] bytes, int offset, byte type, int turn, int player, int card, int deck) {
+        bytes[offset] = type;
+        bytes[offset + 1] = 0;
+        bytes[offset + 2] = 0;
+        bytes[offset + 3] = 0;
+        putInt(bytes, offset + 4, turn);
+        putInt(bytes, offset + 8, player);
+        putInt(bytes, offset + 12, card);
+        putInt(bytes, offset + 16, deck);
+        return offset + RECORD_SIZE;
+    }
+
+    /**
+     * Encodes a big-endian int.
+     *
+     * @param bytes the array to encode into
+     * @param offset the offset of the int in the array
+     * @param value the int
+     */
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
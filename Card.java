@@ -1,8 +1,22 @@
+import java.util.Arrays;
+
 /**
  * The Card class represents a playing card with a face value.
  * Each card has a face value, which is an integer.
+ * Cards are immutable, so {@link #of(int)} hands out one shared instance per face value.
  */
 public class Card {
+    /**
+     * The shared instances handed out by {@link #of(int)}, indexed by face value and grown on demand.
+     */
+    private static volatile Card[] cache = new Card[64];
+
+    /**
+     * The face values the cache may hold, enough for a valid pack of a million players;
+     * larger values are never valid in a pack, so they get a new card each time instead.
+     */
+    private static final int CACHE_LIMIT = 1 << 21;
+
     /**
      * The face value of the card.
      */
@@ -17,6 +31,50 @@ public class Card {
         this.faceValue = faceValue;
     }
 
+    /**
+     * Gets the canonical card for a face value, creating it the first time it is asked for.
+     * Face values from 0 up to a large limit always return the same instance; negative ones, and
+     * ones beyond the limit, can only come from invalid packs and get a new card each time.
+     *
+     * @param faceValue the face value of the card
+     * @return the card with that face value
+     */
+    public static Card of(int faceValue) {
+        Card[] cards = cache;
+        if (faceValue >= 0 && faceValue < cards.length) {
+            Card card = cards[faceValue];
+            if (card != null) {
+                return card;
+            }
+        }
+        return faceValue < 0 || faceValue >= CACHE_LIMIT ? new Card(faceValue) : create(faceValue);
+    }
+
+    /**
+     * Creates and caches the canonical card for a face value, growing the cache if needed.
+     * Cards only have final fields, so other threads may safely read them from the cache without locking.
+     *
+     * @param faceValue the face value of the card, from 0 up to the cache limit
+     * @return the card with that face value
+     */
+    private static synchronized Card create(int faceValue) {
+        Card[] cards = cache;
+        if (faceValue >= cards.length) {
+            int length = cards.length;
+            while (length <= faceValue) {
+                length = Math.min(length * 2, CACHE_LIMIT);
+            }
+            cards = Arrays.copyOf(cards, length);
+        }
+        Card card = cards[faceValue];
+        if (card == null) {
+            card = new Card(faceValue);
+            cards[faceValue] = card;
+        }
+        cache = cards;
+        return card;
+    }
+
     /**
      * Gets the face value of the card.
      *
@@ -25,4 +83,20 @@ public class Card {
     public int faceValue() {
         return faceValue;
     }
+
+    /**
+     * Checks whether another object is a card with the same face value.
+     *
+     * @param other the object to compare with
+     * @return {@code true} if the other object is a card with the same face value
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Card && ((Card) other).faceValue == faceValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(faceValue);
+    }
 }
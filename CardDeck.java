@@ -1,34 +1,130 @@
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The CardDeck class represents a deck of cards in a card game.
  * Each deck has an index indicating its position in the game, and it contains a list of cards.
  * It provides methods to manipulate and retrieve information about the deck.
+ * <p>
+ * The cards are held in a bounded single-producer/single-consumer ring buffer: the player on the
+ * left of the deck is the only one who adds cards and the player on the right is the only one who
+ * takes them, so both operations run in constant time without taking a lock.
+ * A consumer drawing from an empty deck (or a producer adding to a full one) parks until the other
+ * side signals it, so waiting players use no CPU.
+ * <p>
+ * When the game ends the deck is {@link #close() closed}, which wakes both sides: a closed deck
+ * hands out no more cards, and a card added to it while it is full is kept aside rather than waited
+ * for, so no player can be left parked after the game is over.
+ * <p>
+ * A deck whose producer and consumer run on the same thread can be marked {@link #setLocal(boolean) local},
+ * which drops the fences and wake-ups, leaving a plain queue. Players that are not waiting on a thread
+ * of their own can instead be told about new cards and free slots through listeners.
  */
 public class CardDeck {
+    /**
+     * The default number of slots in the ring buffer, always a power of two.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
     /**
      * The index of the deck in the game.
      */
     private final int deckIndex;
+
+    /**
+     * The ring buffer holding the cards in the deck.
+     */
+    private Card[] ring;
+
+    /**
+     * The mask used to wrap a position onto a slot of the ring, equal to its length minus one.
+     */
+    private int mask;
+
+    /**
+     * The position of the top card of the deck, only advanced by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The position one past the bottom card of the deck, only advanced by the producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The consumer thread parked waiting for a card, or {@code null} if it is not waiting.
+     */
+    private volatile Thread waitingConsumer;
+
+    /**
+     * The producer thread parked waiting for a free slot, or {@code null} if it is not waiting.
+     */
+    private volatile Thread waitingProducer;
+
+    /**
+     * Flag indicating whether the deck has been closed at the end of the game.
+     */
+    private volatile boolean closed;
+
     /**
-     * The list of cards in the deck.
+     * Flag indicating whether the deck is only ever used by one thread, so nobody needs waking.
      */
-    private final ArrayList<Card> deck;
+    private boolean local;
+
+    /**
+     * Run after each card is added, or {@code null}.
+     */
+    private Runnable cardListener;
+
+    /**
+     * Run after each card is taken, or {@code null}.
+     */
+    private Runnable roomListener;
+
+    /**
+     * Cards added while the deck was closed and full, only touched by the producer until it stops.
+     */
+    private final ArrayList<Card> spilled = new ArrayList<>();
 
     /**
      * Constructs a new CardDeck instance with the specified deck index.
-     * It creates an empty ArrayList for the cards to be later stored in.
+     * It creates an empty ring buffer for the cards to be later stored in.
      *
      * @param deckID the index of the deck in the game
      */
     public CardDeck(int deckID) {
-        this.deck = new ArrayList<>();
+        this(deckID, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new CardDeck instance with the specified deck index and ring capacity.
+     *
+     * @param deckID the index of the deck in the game
+     * @param capacity the minimum number of cards the deck can hold, rounded up to a power of two
+     */
+    public CardDeck(int deckID, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Deck capacity must be positive: " + capacity);
+        }
+        this.ring = new Card[ringSizeFor(capacity)];
+        this.mask = ring.length - 1;
         deckIndex = deckID;
     }
 
+    /**
+     * Rounds a capacity up to the next power of two so positions can be wrapped with a mask.
+     *
+     * @param capacity the requested capacity
+     * @return the smallest power of two that is at least {@code capacity}
+     */
+    private static int ringSizeFor(int capacity) {
+        int size = Integer.highestOneBit(capacity);
+        return size == capacity ? size : size << 1;
+    }
+
     /**
      * Gets the index of the deck in the game.
      *
@@ -38,73 +134,394 @@ public class CardDeck {
         return deckIndex;
     }
 
+    /**
+     * Gets the number of cards currently in the deck.
+     *
+     * @return the number of cards in the deck
+     */
+    public int size() {
+        return (int) (tail.getAcquire() - head.getAcquire());
+    }
+
+    /**
+     * Gets the number of cards the deck can hold.
+     *
+     * @return the capacity of the ring buffer
+     */
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Checks whether the deck has a free slot for the next card.
+     * Must only be called by the producer of the deck; a free slot stays free until the producer fills it.
+     *
+     * @return {@code true} if {@link #offerCard(Card)} would add a card
+     */
+    public boolean hasRoom() {
+        return tail.get() - head.getAcquire() < ring.length;
+    }
+
+    /**
+     * Marks the deck as used by a single thread, which both adds and takes its cards, so adding and
+     * taking a card no longer fence or wake anyone. Waiting on a local deck is not supported.
+     * This must be called before the game starts.
+     *
+     * @param local {@code true} if the producer and consumer of the deck run on the same thread
+     */
+    public void setLocal(boolean local) {
+        this.local = local;
+    }
 
     /**
      * Sets the initial cards of the deck.
+     * This must be called before the game starts, as the ring is grown if the cards do not fit.
      *
      * @param startDeck the list of cards to set as the initial deck
      */
     public void setDeck (ArrayList<Card> startDeck){
-        deck.addAll(startDeck);
+        int needed = size() + startDeck.size();
+        if (needed > ring.length) {
+            Card[] grown = new Card[ringSizeFor(needed)];
+            long h = head.get();
+            long t = tail.get();
+            for (long i = h; i < t; i++) {
+                grown[(int) (i - h)] = ring[(int) i & mask];
+            }
+            ring = grown;
+            mask = grown.length - 1;
+            head.set(0);
+            tail.set(t - h);
+        }
+        for (Card card : startDeck) {
+            addCard(card);
+        }
+    }
+
+    /**
+     * Sets the initial cards of the deck from face values.
+     * This must be called before the game starts, as the ring is grown if the cards do not fit.
+     *
+     * @param faceValues the face values of the initial deck, from top to bottom
+     */
+    public void setDeck(int[] faceValues) {
+        ArrayList<Card> startDeck = new ArrayList<>(faceValues.length);
+        for (int faceValue : faceValues) {
+            startDeck.add(Card.of(faceValue));
+        }
+        setDeck(startDeck);
     }
 
     /**
      * Returns a string representation of the deck, used in the output file.
+     * This is only safe to call once the players using the deck have stopped.
      *
      * @return a string containing the face values of the cards in the deck
      */
     public String deckAsString (){
-        String sDeck = "";
-        for(Card card : deck){
-            sDeck = sDeck + card.faceValue() + " ";
+        StringBuilder sDeck = new StringBuilder();
+        for (long i = head.getAcquire(), t = tail.getAcquire(); i < t; i++) {
+            sDeck.append(ring[(int) i & mask].faceValue()).append(' ');
         }
-        return sDeck;
+        for (Card card : spilled) {
+            sDeck.append(card.faceValue()).append(' ');
+        }
+        return sDeck.toString();
+    }
+
+    /**
+     * Returns the face values of the cards in the deck, from top to bottom, including any cards
+     * added after the deck was closed while full.
+     * This is only safe to call once the players using the deck have stopped.
+     *
+     * @return the face values of the cards in the deck
+     */
+    public int[] deckAsValues() {
+        long h = head.getAcquire();
+        int queued = (int) (tail.getAcquire() - h);
+        int[] values = new int[queued + spilled.size()];
+        for (int i = 0; i < queued; i++) {
+            values[i] = ring[(int) (h + i) & mask].faceValue();
+        }
+        for (int i = 0; i < spilled.size(); i++) {
+            values[queued + i] = spilled.get(i).faceValue();
+        }
+        return values;
     }
 
     /**
-     * Deletes the top card from the deck.
+     * Deletes the top card from the deck if there is one.
+     * Must only be called by the consumer of the deck.
      *
-     * @return the top card from the deck
+     * @return the top card from the deck, or {@code null} if the deck is empty
      */
-    public synchronized Card takeCard(){
-        Card topCard = deck.get(0);
-        deck.remove(0);
+    public Card pollCard(){
+        long h = head.get();
+        if (h == tail.getAcquire()) {
+            return null;
+        }
+        int slot = (int) h & mask;
+        Card topCard = ring[slot];
+        ring[slot] = null;
+        // Publishes the free slot to the producer
+        head.setRelease(h + 1);
+        if (!local) {
+            signal(waitingProducerAfterPublish());
+            runListener(roomListener);
+        }
         return topCard;
     }
 
     /**
-     * Adds a card to the bottom of the deck.
+     * Deletes the top card from the deck, waiting for one to be added if the deck is empty.
+     * Must only be called by the consumer of the deck.
+     * If the thread is interrupted while waiting, the interrupt status is kept and {@code null} is returned.
+     *
+     * @return the top card from the deck, or {@code null} if the deck is closed or the thread is
+     *         interrupted while waiting
+     */
+    public Card takeCard(){
+        if (closed) {
+            return null;
+        }
+        Card topCard = pollCard();
+        if (topCard != null) {
+            return topCard;
+        }
+        waitingConsumer = Thread.currentThread();
+        try {
+            // Re-check after announcing ourselves so an add racing with the announcement is not missed
+            while ((topCard = pollCardAfterAnnounce()) == null) {
+                if (closed || Thread.currentThread().isInterrupted()) {
+                    return null;
+                }
+                LockSupport.park(this);
+            }
+            return topCard;
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    /**
+     * Deletes the top card from the deck, waiting up to the given time for one to be added.
+     * Must only be called by the consumer of the deck.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the top card from the deck, or {@code null} if the deck is closed or the timeout
+     *         elapsed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public Card takeCard(long timeout, TimeUnit unit) throws InterruptedException {
+        if (closed) {
+            return null;
+        }
+        Card topCard = pollCard();
+        if (topCard != null) {
+            return topCard;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waitingConsumer = Thread.currentThread();
+        try {
+            while ((topCard = pollCardAfterAnnounce()) == null) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (closed) {
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return topCard;
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    /**
+     * Adds a card to the bottom of the deck if there is a free slot.
+     * Must only be called by the producer of the deck.
      *
      * @param card the card to be added to the deck
+     * @return {@code true} if the card was added, {@code false} if the deck is full
      */
-    public synchronized void addCard(Card card){
-        deck.add(card);
+    public boolean offerCard(Card card){
+        long t = tail.get();
+        if (t - head.getAcquire() == ring.length) {
+            return false;
+        }
+        ring[(int) t & mask] = card;
+        // Publishes the card to the consumer
+        tail.setRelease(t + 1);
+        if (!local) {
+            signal(waitingConsumerAfterPublish());
+            runListener(cardListener);
+        }
+        return true;
     }
 
     /**
-     * Writes the contents of the deck to a file.
-     * The file is named "deck[deckIndex]_output.txt".
+     * Adds a card to the bottom of the deck, waiting for a free slot if the deck is full.
+     * Must only be called by the producer of the deck.
+     * If the deck is closed while full, the card is kept after the cards in the ring instead, as
+     * nobody will take a card to make room.
+     *
+     * @param card the card to be added to the deck
      */
-    public synchronized void writeDeck(){
-        String fileName = "deck"+deckIndex+"_output.txt";
-        try{
-            // Create a new file with the specified file name
-            File myObj = new File(fileName);
-            myObj.createNewFile();
-        } catch (IOException e){
-            // Handle IOException if there are issues creating the file
-            System.out.println("IOException");
+    public void addCard(Card card){
+        if (offerCard(card)) {
+            return;
         }
+        waitingProducer = Thread.currentThread();
         try {
-            FileWriter myWriter = new FileWriter(fileName);
-            myWriter.write("deck"+deckIndex+" contents: "+ deckAsString());
-            myWriter.write("\n");
-            // Close the FileWriter
-            myWriter.close();
-        }catch (IOException e){
-            // Handle IOException if there are issues writing to the file
-            System.out.println("IOException");
-            e.printStackTrace();
+            VarHandle.fullFence();
+            while (!offerCard(card)) {
+                if (closed) {
+                    spilled.add(card);
+                    return;
+                }
+                LockSupport.park(this);
+            }
+        } finally {
+            waitingProducer = null;
         }
     }
+
+    /**
+     * Sets a listener that the producer runs each time it adds a card, and that is run when the deck is closed.
+     * The listener runs after the card has been published, so a consumer that checks the deck after
+     * it last listened cannot miss the card. This must be called before the game starts.
+     *
+     * @param cardListener the listener, or {@code null} for none
+     */
+    public void setCardListener(Runnable cardListener) {
+        this.cardListener = cardListener;
+    }
+
+    /**
+     * Sets a listener that the consumer runs each time it takes a card, and that is run when the deck is closed.
+     * The listener runs after the slot has been freed. This must be called before the game starts.
+     *
+     * @param roomListener the listener, or {@code null} for none
+     */
+    public void setRoomListener(Runnable roomListener) {
+        this.roomListener = roomListener;
+    }
+
+    /**
+     * Registers a thread to be woken when a card is added, in place of a consumer waiting in
+     * {@link #takeCard()}; used by a thread that runs the consumer's turns among others and has
+     * nothing to do. The thread must check the deck again after registering and before parking.
+     *
+     * @param watcher the thread to wake, or {@code null} to stop watching
+     */
+    public void watchForCards(Thread watcher) {
+        waitingConsumer = watcher;
+        // Orders the registration before the caller's re-check, pairing with the fence after publishing
+        VarHandle.fullFence();
+    }
+
+    /**
+     * Registers a thread to be woken when a card is taken, in place of a producer waiting in
+     * {@link #addCard(Card)}; used by a thread that runs the producer's turns among others and has
+     * nothing to do. The thread must check the deck again after registering and before parking.
+     *
+     * @param watcher the thread to wake, or {@code null} to stop watching
+     */
+    public void watchForRoom(Thread watcher) {
+        waitingProducer = watcher;
+        VarHandle.fullFence();
+    }
+
+    /**
+     * Closes the deck at the end of the game and wakes the players waiting on it.
+     * Afterwards {@link #takeCard()} returns {@code null} and {@link #addCard(Card)} no longer waits.
+     */
+    public void close() {
+        closed = true;
+        // Pairs with the fences after announcing a waiter, so a player parking right now sees the flag
+        VarHandle.fullFence();
+        signal(waitingConsumer);
+        signal(waitingProducer);
+        runListener(cardListener);
+        runListener(roomListener);
+    }
+
+    /**
+     * Checks whether the deck has been closed.
+     *
+     * @return {@code true} if the game using the deck is over
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Polls the deck after the consumer has announced it is waiting.
+     * The fence orders the announcement before the read of the tail, pairing with the fence in
+     * {@link #waitingConsumerAfterPublish()} so a wake-up cannot be lost.
+     *
+     * @return the top card from the deck, or {@code null} if the deck is empty
+     */
+    private Card pollCardAfterAnnounce() {
+        VarHandle.fullFence();
+        return pollCard();
+    }
+
+    /**
+     * Reads the parked consumer after a card has been published.
+     *
+     * @return the waiting consumer thread, or {@code null} if there is none
+     */
+    private Thread waitingConsumerAfterPublish() {
+        VarHandle.fullFence();
+        return waitingConsumer;
+    }
+
+    /**
+     * Reads the parked producer after a slot has been freed.
+     *
+     * @return the waiting producer thread, or {@code null} if there is none
+     */
+    private Thread waitingProducerAfterPublish() {
+        VarHandle.fullFence();
+        return waitingProducer;
+    }
+
+    /**
+     * Unparks a waiting thread, if there is one.
+     *
+     * @param waiter the thread to wake, may be {@code null}
+     */
+    private static void signal(Thread waiter) {
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Runs a listener, if there is one.
+     *
+     * @param listener the listener to run, may be {@code null}
+     */
+    private static void runListener(Runnable listener) {
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Writes the contents of the deck to a file through the game log.
+     * The file is named "deck[deckIndex]_output" with the extension of the log's format.
+     *
+     * @param gameLog the log that writes the game's output files
+     */
+    public void writeDeck(GameLog gameLog){
+        gameLog.deckContents(deckIndex, deckAsValues());
+    }
 }
@@ -3,14 +3,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.assertFalse;
 
 
-import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -52,4 +50,164 @@ class CardDeckTest {
         cardDeck.setDeck(testDeck);
         assertEquals(testDeck.get(0), cardDeck.takeCard());
     }
+
+    @Test
+    void testPollCardOnEmptyDeck() {
+        CardDeck cardDeck = new CardDeck(1);
+        assertNull(cardDeck.pollCard());
+        assertEquals(0, cardDeck.size());
+    }
+
+    @Test
+    void testAddCardWrapsAroundRing() {
+        CardDeck cardDeck = new CardDeck(1, 4);
+        assertEquals(4, cardDeck.capacity());
+        // Cycle more cards through the deck than it has slots
+        for (int i = 1; i <= 10; i++) {
+            cardDeck.addCard(new Card(i));
+            cardDeck.addCard(new Card(i + 100));
+            assertEquals(i, cardDeck.takeCard().faceValue());
+            assertEquals(i + 100, cardDeck.takeCard().faceValue());
+        }
+        assertEquals(0, cardDeck.size());
+    }
+
+    @Test
+    void testOfferCardWhenFull() {
+        CardDeck cardDeck = new CardDeck(1, 2);
+        assertTrue(cardDeck.offerCard(new Card(1)));
+        assertTrue(cardDeck.offerCard(new Card(2)));
+        assertFalse(cardDeck.offerCard(new Card(3)));
+        assertEquals("1 2 ", cardDeck.deckAsString());
+    }
+
+    @Test
+    void testSetDeckGrowsRing() {
+        CardDeck cardDeck = new CardDeck(1, 2);
+        ArrayList<Card> testDeck = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            testDeck.add(new Card(i));
+        }
+        cardDeck.setDeck(testDeck);
+        assertEquals(5, cardDeck.size());
+        assertEquals("1 2 3 4 5 ", cardDeck.deckAsString());
+    }
+
+    @Test
+    void testTakeCardTimesOutOnEmptyDeck() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1);
+        assertNull(cardDeck.takeCard(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testTakeCardWaitsForProducer() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1);
+        Card card = new Card(7);
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+            cardDeck.addCard(card);
+        });
+        producer.start();
+        assertSame(card, cardDeck.takeCard(5, TimeUnit.SECONDS));
+        producer.join();
+    }
+
+    @Test
+    void testAddCardWaitsForConsumer() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1, 1);
+        cardDeck.addCard(new Card(1));
+        Thread producer = new Thread(() -> cardDeck.addCard(new Card(2)));
+        producer.start();
+        assertEquals(1, cardDeck.takeCard().faceValue());
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertEquals(2, cardDeck.takeCard().faceValue());
+    }
+
+    @Test
+    void testClosedDeckHandsOutNoCards() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1);
+        cardDeck.addCard(new Card(1));
+        cardDeck.close();
+        assertTrue(cardDeck.isClosed());
+        assertNull(cardDeck.takeCard());
+        assertNull(cardDeck.takeCard(5, TimeUnit.SECONDS));
+        assertArrayEquals(new int[] {1}, cardDeck.deckAsValues());
+    }
+
+    @Test
+    void testCloseWakesWaitingConsumer() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1);
+        Card[] taken = {new Card(1)};
+        Thread consumer = new Thread(() -> taken[0] = cardDeck.takeCard());
+        consumer.start();
+        Thread.sleep(20);
+        cardDeck.close();
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        assertNull(taken[0]);
+    }
+
+    @Test
+    void testCloseWakesWaitingProducer() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1, 1);
+        cardDeck.addCard(new Card(1));
+        Thread producer = new Thread(() -> cardDeck.addCard(new Card(2)));
+        producer.start();
+        Thread.sleep(20);
+        cardDeck.close();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertTrue(cardDeck.isClosed());
+        // The card added to the full deck is kept, so no card goes missing from the output
+        assertArrayEquals(new int[] {1, 2}, cardDeck.deckAsValues());
+        assertEquals("1 2 ", cardDeck.deckAsString());
+    }
+
+    @Test
+    void testHasRoomUntilFull() {
+        CardDeck cardDeck = new CardDeck(1, 2);
+        cardDeck.setLocal(true);
+        assertTrue(cardDeck.hasRoom());
+        cardDeck.addCard(new Card(1));
+        cardDeck.addCard(new Card(2));
+        assertFalse(cardDeck.hasRoom());
+        assertEquals(1, cardDeck.pollCard().faceValue());
+        assertTrue(cardDeck.hasRoom());
+    }
+
+    @Test
+    void testWatcherIsWokenByNewCard() throws InterruptedException {
+        CardDeck cardDeck = new CardDeck(1);
+        Thread watcher = new Thread(() -> {
+            cardDeck.watchForCards(Thread.currentThread());
+            while (cardDeck.size() == 0) {
+                LockSupport.park();
+            }
+            cardDeck.watchForCards(null);
+        });
+        watcher.start();
+        Thread.sleep(20);
+        assertTrue(cardDeck.offerCard(new Card(1)));
+        watcher.join(5000);
+        assertFalse(watcher.isAlive());
+    }
+
+    @Test
+    void testListenersRunOnAddTakeAndClose() {
+        CardDeck cardDeck = new CardDeck(1);
+        int[] calls = new int[2];
+        cardDeck.setCardListener(() -> calls[0]++);
+        cardDeck.setRoomListener(() -> calls[1]++);
+        cardDeck.addCard(new Card(1));
+        assertArrayEquals(new int[] {1, 0}, calls);
+        cardDeck.pollCard();
+        assertArrayEquals(new int[] {1, 1}, calls);
+        cardDeck.close();
+        assertArrayEquals(new int[] {2, 2}, calls);
+    }
 }
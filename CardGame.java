@@ -1,104 +1,585 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Scanner;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
 
 
 /**
  * The CardGame class represents the main class for a card game.
  * It manages the players, card decks, and game flow.
+ * <p>
+ * Each instance is a self-contained game built from a pack and a number of players, so several
+ * games can run at the same time in one JVM, each writing its output files to its own directory.
  */
 public class CardGame {
+    /**
+     * The largest number of threads writing the final hands and decks at once.
+     */
+    private static final int FINAL_OUTPUT_PARALLELISM = 8;
+
+    /**
+     * The value of {@link #winnerIndex} once the game has been abandoned without a winner.
+     */
+    private static final int ABANDONED = -1;
+
     /**
      * List of players participating in the game.
      */
-    private static ArrayList<Player> listPlayers = new ArrayList<>();
+    private final ArrayList<Player> listPlayers = new ArrayList<>();
 
     /**
      * List of card decks used in the game.
      */
-    private static ArrayList<CardDeck> listCardDecks = new ArrayList<>();
+    private final ArrayList<CardDeck> listCardDecks = new ArrayList<>();
+
+    /**
+     * Number of players in the game.
+     */
+    private final int noOfPlayers;
 
     /**
-     * List of individual cards used in the game.
+     * The index of the winning player, 0 while nobody has won, or {@link #ABANDONED}; the game is in
+     * progress until it is set. Only the first player to win or give up sets it, so there is at most
+     * one winner however many players win at once.
      */
-    public static ArrayList<Card> cards = new ArrayList<>();
+    private final AtomicInteger winnerIndex = new AtomicInteger();
 
     /**
-     * Number of players in the game.
+     * The time the game was won or abandoned, from {@link System#nanoTime()}.
+     */
+    private volatile long wonAt;
+
+    /**
+     * The time the last player stopped, from {@link System#nanoTime()}.
+     */
+    private final LongAccumulator lastExit = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * The number of turns each player may take before the game is abandoned without a winner.
+     */
+    private volatile long turnBudget = Long.MAX_VALUE;
+
+    /**
+     * Whether a card of some face value was dealt four times, without which nobody can win.
+     */
+    private final boolean winnable;
+
+    /**
+     * The log that writes the player and deck output files in the background.
+     */
+    private final GameLog gameLog;
+
+    /**
+     * How much of the game is written to the output files.
+     */
+    private final LogLevel logLevel;
+
+    /**
+     * The metrics the players record, or {@code null} if metrics are not enabled.
+     */
+    private volatile GameMetrics metrics;
+
+    /**
+     * Flag making sure the game is only run once.
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+
+    /**
+     * Constructs an empty game with no players, writing to the current working directory.
      */
-    public static int noOfPlayers;
+    public CardGame() {
+        this(new ArrayList<>(), 0);
+    }
+
+    /**
+     * Constructs a game from a pack, writing its output files to the current working directory.
+     *
+     * @param pack the cards of the pack, in the order they are dealt
+     * @param noOfPlayers the number of players in the game
+     */
+    public CardGame(List<Card> pack, int noOfPlayers) {
+        this(pack, noOfPlayers, Paths.get(""));
+    }
 
     /**
-     * Flag indicating whether the game is in progress.
+     * Constructs a game from a pack, creating the players and decks and dealing the cards.
+     *
+     * @param pack the cards of the pack, in the order they are dealt
+     * @param noOfPlayers the number of players in the game
+     * @param outputDirectory the directory the player and deck output files are written to
+     * @throws IllegalArgumentException if the pack has too few cards to deal
      */
-    private volatile boolean gameInProgress = true;
+    public CardGame(List<Card> pack, int noOfPlayers, Path outputDirectory) {
+        this(DealtPack.of(TurnBasedEngine.faceValues(pack), noOfPlayers), outputDirectory);
+    }
 
     /**
-     * List of the threads associated with each player.
+     * Constructs a game from a pack that has already been dealt, creating the players and decks.
+     *
+     * @param dealtPack the starting hands and deck contents
+     * @param outputDirectory the directory the player and deck output files are written to
      */
-    private static ArrayList<Thread> playerThreads = new ArrayList<>();
+    public CardGame(DealtPack dealtPack, Path outputDirectory) {
+        this(dealtPack, outputDirectory, LogFormat.TEXT);
+    }
+
+    /**
+     * Constructs a game from a pack that has already been dealt, writing its output files in the given format.
+     *
+     * @param dealtPack the starting hands and deck contents
+     * @param outputDirectory the directory the player and deck output files are written to
+     * @param logFormat the format the output files are written in
+     */
+    public CardGame(DealtPack dealtPack, Path outputDirectory, LogFormat logFormat) {
+        this(dealtPack, outputDirectory, logFormat, LogLevel.FULL);
+    }
+
+    /**
+     * Constructs a game from a pack that has already been dealt, writing as much of the game as
+     * the log level asks for to output files in the given format.
+     *
+     * @param dealtPack the starting hands and deck contents
+     * @param outputDirectory the directory the player and deck output files are written to
+     * @param logFormat the format the output files are written in
+     * @param logLevel how much of the game is written to the output files
+     */
+    public CardGame(DealtPack dealtPack, Path outputDirectory, LogFormat logFormat, LogLevel logLevel) {
+        this.logLevel = logLevel;
+        if (logLevel.logsSummary()) {
+            try {
+                Files.createDirectories(outputDirectory.toAbsolutePath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        this.noOfPlayers = dealtPack.getNoOfPlayers();
+        this.winnable = dealtPack.isWinnable();
+        this.gameLog = new GameLog(outputDirectory, logFormat);
+
+        // Creates the rights amount of players and decks
+        createPlay();
+
+        // Gives the players and decks the cards they were dealt
+        deal(dealtPack);
+    }
 
 
     /**
      * Main method to start the card game.
      * Takes user input for the number of players and the filename of the card pack,
      * initialises the game components, deals the cards, and starts player threads.
+     * Passing {@code --threads=segmented} or {@code --threads=actors} runs the players on one thread per core
+     * instead of one platform thread each,
+     * {@code --log=binary} writes compact binary output files that {@link LogRenderer} turns into text,
+     * {@code --verbosity=summary} or {@code --verbosity=none} leaves out every turn or every file,
+     * {@code --metrics=<millis>} collects metrics, exposes them over JMX and prints them at that period, and
+     * {@code --turn-budget=<turns>} abandons the game once any player has taken that many turns.
      */
     public static void main(String[] args) {
+        ExecutionMode mode = ExecutionMode.fromArgs(args);
+        LogFormat logFormat = LogFormat.fromArgs(args);
+        LogLevel logLevel = LogLevel.fromArgs(args);
+
         // Uses scanner to retrieve user input
         Scanner scanner = new Scanner(System.in);
-        noOfPlayers = getValidNumPlayers(scanner);
+        int noOfPlayers = getValidNumPlayers(scanner);
         String fileName = getValidFileName(scanner);
         scanner.close();
 
+        // Reads game pack from the given file, validates it and deals it out
+        DealtPack dealtPack;
+        try {
+            dealtPack = MappedPackReader.read(Paths.get(fileName), noOfPlayers);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid pack. There can be no winner.");
+            System.out.println(e.getMessage());
+            return;
+        }
+        if (!dealtPack.isValid()) {
+            System.out.println("Invalid pack. There can be no winner.");
+            System.out.println(dealtPack.getReport());
+        }
+
         // Created new instance of CardGame
-        CardGame cardGame = new CardGame();
+        CardGame cardGame = new CardGame(dealtPack, Paths.get(""), logFormat, logLevel);
+        cardGame.setTurnBudget(longFromArgs(args, "--turn-budget=", Long.MAX_VALUE));
+
+        long metricsPeriod = longFromArgs(args, "--metrics=", 0);
+        GameMetrics metrics = null;
+        if (metricsPeriod > 0) {
+            metrics = cardGame.enableMetrics();
+            metrics.register(fileName);
+            metrics.startDump(metricsPeriod, System.out);
+        }
+        GameResult result;
+        try {
+            result = cardGame.run(mode);
+        } finally {
+            if (metrics != null) {
+                metrics.stopDump();
+                metrics.unregister();
+            }
+        }
+        if (metrics != null) {
+            System.out.println(metrics.snapshot());
+        }
+        if (!result.hasWinner()) {
+            System.out.println("The game was abandoned without a winner after " + result.getTotalTurns() + " turns.");
+        }
+    }
 
-        // Creates the rights amount of players and decks
-        createPlay(cardGame);
+    /**
+     * Picks a number from the command line arguments.
+     *
+     * @param args the command line arguments
+     * @param prefix the start of the argument, up to and including the equals sign
+     * @param defaultValue the number to use if no argument starts with the prefix
+     * @return the number following the prefix, or the default
+     */
+    private static long longFromArgs(String[] args, String prefix, long defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Long.parseLong(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Turns on metrics for the game; must be called before the game is run. The dealt decks are
+     * recorded as the starting depths, so a deck no card reaches before the game ends still shows them.
+     *
+     * @return the metrics the players will record
+     * @throws IllegalStateException if the game has already been run
+     */
+    public GameMetrics enableMetrics() {
+        if (started.get()) {
+            throw new IllegalStateException("Metrics must be enabled before the game is run");
+        }
+        if (metrics == null) {
+            metrics = new GameMetrics(noOfPlayers);
+            for (CardDeck cardDeck : listCardDecks) {
+                metrics.deckDepth(cardDeck.getDeckIndex(), cardDeck.size());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Limits the number of turns each player may take; the first player to use up the budget
+     * abandons the game without a winner. Without a budget the game runs until somebody wins.
+     *
+     * @param turnsPerPlayer the number of turns each player may take
+     * @throws IllegalArgumentException if the budget is negative
+     * @throws IllegalStateException if the game has already been run
+     */
+    public void setTurnBudget(long turnsPerPlayer) {
+        if (turnsPerPlayer < 0) {
+            throw new IllegalArgumentException("The turn budget cannot be negative: " + turnsPerPlayer);
+        }
+        if (started.get()) {
+            throw new IllegalStateException("The turn budget must be set before the game is run");
+        }
+        turnBudget = turnsPerPlayer;
+    }
+
+    /**
+     * Gets the number of turns each player may take before the game is abandoned.
+     *
+     * @return the turn budget, or {@link Long#MAX_VALUE} if there is none
+     */
+    public long getTurnBudget() {
+        return turnBudget;
+    }
+
+    /**
+     * Gets the metrics of the game.
+     *
+     * @return the metrics, or {@code null} if they are not enabled
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs the game with one platform thread per player and waits for it to finish.
+     *
+     * @return the result of the game
+     */
+    public GameResult run() {
+        return run(ExecutionMode.PLATFORM);
+    }
+
+    /**
+     * Runs the game with one thread of the given mode per player and waits for it to finish.
+     *
+     * @param mode the kind of thread the players run on
+     * @return the result of the game
+     */
+    public GameResult run(ExecutionMode mode) {
+        ExecutorService executor = mode.newExecutor();
+        try {
+            if (mode == ExecutionMode.SEGMENTED) {
+                return runSegmented(Runtime.getRuntime().availableProcessors(), executor);
+            }
+            if (mode == ExecutionMode.ACTORS) {
+                return runActors(Runtime.getRuntime().availableProcessors(), executor);
+            }
+            return run(executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Runs the game on the given executor and waits for it to finish.
+     * Players block while their left deck is empty, so the executor must be able to run every
+     * player of the game at the same time, e.g. a cached or thread-per-task executor.
+     *
+     * @param executor the executor the players run on
+     * @return the result of the game
+     * @throws IllegalStateException if the game has already been run
+     */
+    public GameResult run(Executor executor) {
+        return play(new ArrayList<>(listPlayers), executor);
+    }
 
-        // Reads game pack from the given file and validates it
-        readPackFromFile(fileName);
+    /**
+     * Runs the game with the ring of players split into contiguous segments, each run by one task on
+     * the given executor, and waits for it to finish. The decks inside a segment are only used by its
+     * thread; only the decks between segments are shared. Every player still takes the same turns as
+     * on a thread of their own, but never waits: a segment moves on to its next player instead.
+     *
+     * @param segments the number of segments, usually the number of cores; at most one per player
+     * @param executor the executor the segments run on, which must be able to run them all at once
+     * @return the result of the game
+     * @throws IllegalArgumentException if the number of segments is not positive
+     * @throws IllegalStateException if the game has already been run
+     */
+    public GameResult runSegmented(int segments, Executor executor) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("A game needs at least one segment: " + segments);
+        }
+        // Checked before any deck is made local, as the decks may be in use by a running game
+        if (started.get()) {
+            throw new IllegalStateException("The game has already been run");
+        }
+        segments = Math.min(segments, noOfPlayers);
+        ArrayList<Runnable> tasks = new ArrayList<>(segments);
+        for (int s = 0; s < segments; s++) {
+            int from = (int) ((long) noOfPlayers * s / segments);
+            int to = (int) ((long) noOfPlayers * (s + 1) / segments);
+            // Deck i + 1 sits between players i and i + 1, so a segment's inner decks are its own
+            for (int i = from + 1; i < to; i++) {
+                listCardDecks.get(i).setLocal(true);
+            }
+            if (segments == 1) {
+                // A single segment also both fills and empties the deck of the first player
+                listCardDecks.get(0).setLocal(true);
+            }
+            tasks.add(new RingSegment(listPlayers.subList(from, to), listCardDecks.get(from),
+                    listCardDecks.get(to % noOfPlayers), this));
+        }
+        return play(tasks, executor);
+    }
 
-        // Deals the cards out to the players and decks in a round-robin style
-        deal();
+    /**
+     * Runs the game with the players as actors on a fixed number of worker tasks on the given
+     * executor, and waits for it to finish. A player is only queued for a worker when a card arrives
+     * on its left deck or leaves its right deck, so idle players cost nothing; see {@link ActorScheduler}.
+     *
+     * @param workers the number of worker tasks, usually the number of cores
+     * @param executor the executor the workers run on, which must be able to run them all at once
+     * @return the result of the game
+     * @throws IllegalArgumentException if the number of workers is not positive
+     * @throws IllegalStateException if the game has already been run
+     */
+    public GameResult runActors(int workers, Executor executor) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("A game needs at least one worker: " + workers);
+        }
+        if (started.get()) {
+            throw new IllegalStateException("The game has already been run");
+        }
+        ActorScheduler scheduler = new ActorScheduler(this, listPlayers, listCardDecks,
+                Math.min(workers, noOfPlayers));
+        return play(scheduler.workerTasks(), executor);
+    }
 
+    /**
+     * Runs the tasks that play the game on the given executor, waits for them all to stop, and
+     * writes the final outputs.
+     *
+     * @param tasks the tasks that take the players' turns
+     * @param executor the executor the tasks run on
+     * @return the result of the game
+     * @throws IllegalStateException if the game has already been run
+     */
+    private GameResult play(List<? extends Runnable> tasks, Executor executor) {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The game has already been run");
+        }
+        long startTime = System.nanoTime();
+        if (!winnable) {
+            // The players start and stop straight away, leaving just their initial hands
+            abandonGame();
+        }
 
         // Output player's initial hand to external files
-        for (Player player : listPlayers) {
-            player.writeInitialHand();
+        if (logLevel.logsSummary()) {
+            for (Player player : listPlayers) {
+                player.writeInitialHand();
+            }
         }
 
-        // Create and start a thread for each player
+        // Start every player and wait for them all to finish
+        CountDownLatch finished = new CountDownLatch(tasks.size());
+        for (Runnable task : tasks) {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    lastExit.accumulate(System.nanoTime());
+                    finished.countDown();
+                }
+            });
+        }
+        awaitUninterruptibly(finished);
+
+        // Every player has stopped, so the hands and decks can be written without racing anyone
+        int winner = Math.max(0, winnerIndex.get());
+        long finalOutputNanos = 0;
+        if (winner != 0 && logLevel.logsSummary()) {
+            long finalOutputStart = System.nanoTime();
+            writeFinalOutputs(winner, executor);
+            finalOutputNanos = System.nanoTime() - finalOutputStart;
+        }
+        // Write out anything still queued and close the output files
+        gameLog.close();
+
+        long totalTurns = 0;
         for (Player player : listPlayers) {
-            Thread playerThread = new Thread(player);
-            playerThreads.add(playerThread);
-            playerThread.start();
+            totalTurns += player.getTurnsTaken();
+        }
+        long shutdownNanos = winner == 0 ? 0 : Math.max(0, lastExit.get() - wonAt);
+        return new GameResult(noOfPlayers, winner, totalTurns, System.nanoTime() - startTime, shutdownNanos,
+                finalOutputNanos);
+    }
+
+    /**
+     * Writes the final hand of every player and the contents of every deck, and closes their files.
+     * The players and decks are split into at most {@link #FINAL_OUTPUT_PARALLELISM} contiguous
+     * batches, each written by one task on the executor the players ran on, so every file is only
+     * written by one thread and the batches write their files at the same time.
+     * Returns once every batch has been written.
+     *
+     * @param winnerID the index of the winning player
+     * @param executor the executor the batches run on
+     */
+    private void writeFinalOutputs(int winnerID, Executor executor) {
+        gameLog.startFinalStage();
+        int batches = Math.min(FINAL_OUTPUT_PARALLELISM, noOfPlayers);
+        CountDownLatch written = new CountDownLatch(batches);
+        for (int b = 0; b < batches; b++) {
+            int from = (int) ((long) noOfPlayers * b / batches);
+            int to = (int) ((long) noOfPlayers * (b + 1) / batches);
+            executor.execute(() -> {
+                try {
+                    for (int i = from; i < to; i++) {
+                        Player player = listPlayers.get(i);
+                        player.writeFinalHand(winnerID);
+                        player.finishOutput();
+                        listCardDecks.get(i).writeDeck(gameLog);
+                    }
+                } finally {
+                    written.countDown();
+                }
+            });
         }
+        awaitUninterruptibly(written);
+    }
 
-        // Ensure threads run concurrently and simultaneously
-        for (Thread playerThread : playerThreads) {
+    /**
+     * Waits for a latch to reach zero, keeping the interrupt status if interrupted while waiting.
+     *
+     * @param latch the latch to wait for
+     */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
             try {
-                playerThread.join();
+                latch.await();
+                break;
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                interrupted = true;
             }
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
+    /**
+     * Ends the game with the given player as the winner, unless another player has already won.
+     * Closes every deck, which wakes the players waiting on an empty or full deck so they stop
+     * straight away; the final hands and decks are written by {@link #run(Executor)} once every
+     * player has stopped.
+     *
+     * @param winnerID the index of the player who has a winning hand
+     * @return {@code true} if this call ended the game, {@code false} if the game had already been won
+     */
+    public boolean stopGame(int winnerID) {
+        return endGame(winnerID);
     }
 
     /**
-     * Stops the game, writes deck contents to files, assigns a winner ID, and terminates all player threads.
+     * Ends the game without a winner, unless it has already ended, e.g. because a player used up
+     * the turn budget or the cards dealt cannot make a winning hand. Closes every deck, as
+     * {@link #stopGame(int)} does, and no final hands or decks are written.
+     *
+     * @return {@code true} if this call ended the game
      */
-    public synchronized void stopGame(int winnerID) {
-        gameInProgress = false;
-        // End of game outputs
-        for (Player player : listPlayers) {
-            player.writeFinalHand(winnerID);
+    public boolean abandonGame() {
+        return endGame(ABANDONED);
+    }
+
+    /**
+     * Sets the outcome of the game if it is still in progress and closes every deck.
+     *
+     * @param outcome the index of the winner, or {@link #ABANDONED}
+     * @return {@code true} if this call ended the game
+     */
+    private boolean endGame(int outcome) {
+        long now = System.nanoTime();
+        if (!winnerIndex.compareAndSet(0, outcome)) {
+            return false;
         }
+        wonAt = now;
         for (CardDeck cardDeck : listCardDecks) {
-            cardDeck.writeDeck();
+            cardDeck.close();
         }
+        return true;
+    }
+
+    /**
+     * Gets how much of the game is written to the output files.
+     *
+     * @return the log level of the game
+     */
+    public LogLevel getLogLevel() {
+        return logLevel;
     }
 
     /**
@@ -107,10 +588,19 @@ public class CardGame {
      * @return {@code true} if the game is in progress, {@code false} otherwise
      */
     public boolean isGameInProgress() {
-        return gameInProgress;
+        return winnerIndex.get() == 0;
     }
 
 
+    /**
+     * Gets the log that writes the output files of this game.
+     *
+     * @return the game log
+     */
+    public GameLog getGameLog() {
+        return gameLog;
+    }
+
     /**
      * Prompts the user to enter the number of players and validates the input.
      * Keeps prompting until a valid positive integer is entered.
@@ -161,78 +651,50 @@ public class CardGame {
      * Validates the input card pack based on specific criteria.
      * Checks the length, range, and occurrence of card values in the pack.
      *
+     * @param cards the cards of the pack
+     * @param noOfPlayers the number of players the pack is for
      * @return {@code true} if the card pack is valid, {@code false} otherwise
+     * @see PackValidator
      */
-    public static Boolean validateInputPack() {
-        int expectedLength = 8 * noOfPlayers;
-        int maxNumber = 2 * noOfPlayers;
-        ArrayList<Integer> cardValues = new ArrayList<>();;
-        for (Card card : cards) {
-            cardValues.add(card.faceValue());
-        }
-        // Invalid length
-        if (cardValues.size() != expectedLength) {
-            return false;
-        }
-        // Test for number out of range
-        boolean[] foundNumbers = new boolean[maxNumber + 1];
-        for (int number : cardValues) {
-            if (number < 1 || number > maxNumber) {
-                return false;
-            }
-            foundNumbers[number] = true;
-        }
-        // Test for missing numbers
-        for (int i = 1; i <= maxNumber; i++) {
-            if (!foundNumbers[i]) {
-                return false;
-            }
-        }
-        // Check if each number appears exactly four times
-        int[] count = new int[maxNumber + 1];
-        for (int number : cardValues) {
-            count[number]++;
-        }
-        // Test for numbers appearing the wrong number of times
-        for (int i = 1; i <= maxNumber; i++) {
-            if (count[i] != 4) {
-                return false;
-            }
-        }
-        return true;
+    public static Boolean validateInputPack(List<Card> cards, int noOfPlayers) {
+        return PackValidator.validate(TurnBasedEngine.faceValues(cards), noOfPlayers).isValid();
     }
 
     /**
-     * Reads card values from a file and creates Card objects, populating the 'cards' list.
-     * Validates the input pack using the 'validateInputPack' method.
+     * Reads card values from a file and looks up their Card objects, returning them as a pack.
+     * Validates the input pack using the {@link PackValidator}, reporting the first rule it breaks.
      *
      * @param fileName the name of the file containing card values
+     * @param noOfPlayers the number of players the pack is for
+     * @return the cards of the pack, in file order
      */
-    public static void readPackFromFile(String fileName) {
+    public static ArrayList<Card> readPackFromFile(String fileName, int noOfPlayers) {
+        int[] values;
         // Reads each value from the file
-        try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                int value = Integer.parseInt(line.trim());
-                // Creates a Card object for each value
-                cards.add(new Card(value));
-            }
+        try {
+            values = PackReader.readValues(Paths.get(fileName));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        ArrayList<Card> cards = new ArrayList<>(values.length);
+        for (int value : values) {
+            // Uses the shared Card object for each value
+            cards.add(Card.of(value));
+        }
         // Check that the pack is valid
-        if (!validateInputPack()) {
+        PackReport report = PackValidator.validate(values, noOfPlayers);
+        if (!report.isValid()) {
             System.out.println("Invalid pack. There can be no winner.");
+            System.out.println(report);
         }
+        return cards;
     }
 
     /**
      * Creates objects for card decks and players based on the number of players.
      * Populates the 'listCardDecks' and 'listPlayers' lists.
-     *
-     * @param cardGame the CardGame instance associated with the created players
      */
-    public static void createPlay(CardGame cardGame) {
+    private void createPlay() {
         // Creates decks
         for (int i = 1; i <= noOfPlayers; i++) {
             listCardDecks.add(new CardDeck(i));
@@ -243,61 +705,22 @@ public class CardGame {
             CardDeck leftDeck = listCardDecks.get(i - 1);
             CardDeck rightDeck = listCardDecks.get(i % noOfPlayers);
             // Creates new instance of the Player class
-            Player player = new Player(i, leftDeck, rightDeck, cardGame);
+            Player player = new Player(i, leftDeck, rightDeck, this);
             listPlayers.add(player);
         }
     }
 
     /**
-     * Deals cards to players and card decks based on a round-robin method.
-     * Initialises the hands of players and the contents of card decks.
+     * Gives each player and deck the cards it was dealt.
+     *
+     * @param dealtPack the pack dealt round-robin into starting hands and deck contents
      */
-    public static void deal() {
-        // Deal players cards
+    private void deal(DealtPack dealtPack) {
         for (Player player : listPlayers) {
-            int playerID = player.getPlayerIndex();
-            ArrayList<Card> startHand = new ArrayList<>();
-            int loopCount = 0;
-            // Round-robin style
-            for (int i = 1; i <= 4; i++) {
-                Card cardToAdd = cards.get((playerID + (4 * loopCount)) - 1);
-                startHand.add(cardToAdd);
-                loopCount++;
-            }
-            player.setHand(startHand);
+            player.setHand(dealtPack.handOf(player.getPlayerIndex()));
         }
-
-        // Get remaining cards that have not been dealt
-        ArrayList<Card> remainingCards;
-        remainingCards = new ArrayList<>(cards.subList(noOfPlayers * 4, cards.size()));
-
-        // Deal card deck cards
         for (CardDeck deck : listCardDecks) {
-            int deckID = deck.getDeckIndex();
-            ArrayList<Card> startDeck = new ArrayList<>();
-            int loopCount = 0;
-            // Round-robin style
-            for (int i = 1; i <= 4; i++) {
-                Card cardToAdd = remainingCards.get((deckID + (4 * loopCount)) - 1);
-                startDeck.add(cardToAdd);
-                loopCount++;
-            }
-            deck.setDeck(startDeck);
+            deck.setDeck(dealtPack.deckOf(deck.getDeckIndex()));
         }
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
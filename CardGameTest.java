@@ -1,17 +1,24 @@
 import org.junit.Before;
 import org.junit.Test;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Scanner;
-import static org.junit.Assert.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.assertFalse;
 
 public class CardGameTest {
 
@@ -66,32 +73,54 @@ public class CardGameTest {
 
     @Test
     public void testValidateInputPack_NumberOutOfRange() {
+        ArrayList<Card> cards = new ArrayList<>();
         Card card1 = new Card(0);
         Card card2 = new Card(1);
         Card card3 = new Card(4);
-        CardGame.cards.add(card1);
-        CardGame.cards.add(card2);
-        CardGame.cards.add(card3);
-        CardGame.noOfPlayers = 2;
-        Boolean result = CardGame.validateInputPack();
+        cards.add(card1);
+        cards.add(card2);
+        cards.add(card3);
+        Boolean result = CardGame.validateInputPack(cards, 2);
         assertFalse(result);
     }
 
+    @Test
+    public void testMainPlaysPackWithValueOutOfRange() throws IOException {
+        // Player 1 is dealt a winning hand; a deck holds a value far beyond any valid pack
+        Path pack = Files.createTempFile("pack", ".txt");
+        Files.writeString(pack, "1\n2\n1\n2\n1\n2\n1\n2\n2147483647\n3\n3\n3\n3\n4\n4\n4\n");
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream(("2\n" + pack + "\n").getBytes()));
+            System.setOut(new PrintStream(printed, true));
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> CardGame.main(new String[] {"--verbosity=none"}));
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        String output = printed.toString();
+        assertTrue(output.contains("Invalid pack. There can be no winner."));
+        assertTrue(output.contains("2147483647, which is out of range"));
+    }
+
     @Test
     public void testValidateInputPack_InvalidLength() {
+        ArrayList<Card> cards = new ArrayList<>();
         Card card1 = new Card(1);
         Card card2 = new Card(2);
         Card card3 = new Card(3);
-        CardGame.cards.add(card1);
-        CardGame.cards.add(card2);
-        CardGame.cards.add(card3);
-        CardGame.noOfPlayers = 4;
-        Boolean result = CardGame.validateInputPack();
+        cards.add(card1);
+        cards.add(card2);
+        cards.add(card3);
+        Boolean result = CardGame.validateInputPack(cards, 4);
         assertFalse(result);
     }
 
     @Test
     public void testValidateInputPack_NumberMissing() {
+        ArrayList<Card> cards = new ArrayList<>();
         Card card1 = new Card(1);
         Card card2 = new Card(2);
         Card card3 = new Card(3);
@@ -108,38 +137,264 @@ public class CardGameTest {
         Card card14 = new Card(14);
         Card card15 = new Card(15);
         Card card16 = new Card(16);
-        CardGame.cards.add(card1);
-        CardGame.cards.add(card2);
-        CardGame.cards.add(card3);
-        CardGame.cards.add(card4);
-        CardGame.cards.add(card5);
-        CardGame.cards.add(card6);
-        CardGame.cards.add(card7);
-        CardGame.cards.add(card8);
-        CardGame.cards.add(card9);
-        CardGame.cards.add(card10);
-        CardGame.cards.add(card11);
-        CardGame.cards.add(card12);
-        CardGame.cards.add(card13);
-        CardGame.cards.add(card14);
-        CardGame.cards.add(card15);
-        CardGame.cards.add(card16);
-        CardGame.noOfPlayers = 4;
-        Boolean result = CardGame.validateInputPack();
+        cards.add(card1);
+        cards.add(card2);
+        cards.add(card3);
+        cards.add(card4);
+        cards.add(card5);
+        cards.add(card6);
+        cards.add(card7);
+        cards.add(card8);
+        cards.add(card9);
+        cards.add(card10);
+        cards.add(card11);
+        cards.add(card12);
+        cards.add(card13);
+        cards.add(card14);
+        cards.add(card15);
+        cards.add(card16);
+        Boolean result = CardGame.validateInputPack(cards, 4);
         assertFalse(result);
     }
 
+    @Test
+    public void testRunReturnsWinner() throws IOException {
+        // Player 1 holds three 1s and draws the last 1 on its first turn;
+        // player 2 cannot collect four of a kind without cards from player 1
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        ArrayList<Card> pack = new ArrayList<>();
+        for (int value : values) {
+            pack.add(new Card(value));
+        }
+        assertTrue(CardGame.validateInputPack(pack, 2));
+        Path outputDirectory = Files.createTempDirectory("cardgame");
+
+        GameResult result = new CardGame(pack, 2, outputDirectory).run();
+
+        assertEquals(1, result.getWinnerIndex());
+        assertEquals(2, result.getNoOfPlayers());
+        String output = new String(Files.readAllBytes(outputDirectory.resolve("player1_output.txt")));
+        assertTrue(output.startsWith("player 1 initial hand 1 1 1 3 \n"));
+        assertTrue(output.contains("player 1 wins\n"));
+        assertTrue(Files.exists(outputDirectory.resolve("deck2_output.txt")));
+    }
+
+    @Test
+    public void testGamesRunIndependently() throws IOException {
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        ArrayList<Card> pack = new ArrayList<>();
+        for (int value : values) {
+            pack.add(new Card(value));
+        }
+        CardGame first = new CardGame(pack, 2, Files.createTempDirectory("cardgame"));
+        CardGame second = new CardGame(pack, 2, Files.createTempDirectory("cardgame"));
+        first.stopGame(2);
+        assertFalse(first.isGameInProgress());
+        assertTrue(second.isGameInProgress());
+        assertEquals(1, second.run().getWinnerIndex());
+    }
 
+    @Test
+    public void testSummaryLevelSkipsTurns() throws IOException {
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        Path outputDirectory = Files.createTempDirectory("cardgame");
+        GameResult result = new CardGame(DealtPack.of(values, 2), outputDirectory, LogFormat.TEXT, LogLevel.SUMMARY).run();
 
+        assertEquals(1, result.getWinnerIndex());
+        assertTrue(result.getTotalTurns() >= 1);
+        String output = new String(Files.readAllBytes(outputDirectory.resolve("player1_output.txt")));
+        assertEquals("player 1 initial hand 1 1 1 3 \nplayer 1 wins\nplayer 1 exits\n"
+                + "player 1 final hand 1 1 1 1 \n", output);
+        assertTrue(Files.exists(outputDirectory.resolve("deck1_output.txt")));
+    }
 
+    @Test
+    public void testNoneLevelWritesNoFiles() throws IOException {
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        Path outputDirectory = Files.createTempDirectory("cardgame");
+        GameResult result = new CardGame(DealtPack.of(values, 2), outputDirectory, LogFormat.TEXT, LogLevel.NONE).run();
 
+        assertEquals(1, result.getWinnerIndex());
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
 
+    @Test
+    public void testFirstWinnerStopsGame() {
+        CardGame cardGame = new CardGame();
+        assertTrue(cardGame.stopGame(2));
+        assertFalse(cardGame.stopGame(1));
+        assertFalse(cardGame.isGameInProgress());
+    }
 
+    @Test
+    public void testLargeGameStopsEveryPlayer() throws IOException {
+        // Enough players that some decks fill up while their consumers are waiting elsewhere
+        PackGenerator generator = new PackGenerator(64, 7);
+        Path outputDirectory = Files.createTempDirectory("cardgame");
+        GameResult result = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                () -> new CardGame(generator.dealtPack(0), outputDirectory, LogFormat.TEXT, LogLevel.SUMMARY).run());
 
+        assertTrue(result.hasWinner());
+        assertTrue(result.getShutdownNanos() >= 0);
+        assertTrue(result.getFinalOutputNanos() > 0);
+        int winners = 0;
+        int cards = 0;
+        for (int i = 1; i <= 64; i++) {
+            String output = new String(Files.readAllBytes(outputDirectory.resolve("player" + i + "_output.txt")));
+            if (output.contains("player " + i + " wins\n")) {
+                winners++;
+            }
+            cards += output.substring(output.indexOf("final hand")).split(" ").length - 3;
+            String deck = new String(Files.readAllBytes(outputDirectory.resolve("deck" + i + "_output.txt")));
+            cards += deck.trim().split(" ").length - 2;
+        }
+        assertEquals(1, winners);
+        // No card is lost or duplicated when the game is stopped
+        assertEquals(8 * 64, cards);
+    }
 
+    @Test
+    public void testTurnBudgetAbandonsGame() throws IOException {
+        // Round-robin this pack goes round in circles, so only a lucky interleaving has a winner
+        int[] values = {2, 2, 3, 3, 1, 2, 1, 3, 3, 3, 3, 3, 3, 3, 3, 3};
+        CardGame cardGame = new CardGame(DealtPack.of(values, 2), Files.createTempDirectory("cardgame"),
+                LogFormat.TEXT, LogLevel.NONE);
+        cardGame.setTurnBudget(1000);
+        GameResult result = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> cardGame.run());
 
+        assertFalse(cardGame.isGameInProgress());
+        assertTrue(result.getTotalTurns() <= 2 * 1000);
+        assertThrows(IllegalStateException.class, () -> cardGame.setTurnBudget(10));
+    }
 
+    @Test
+    public void testZeroTurnBudgetTakesNoTurns() throws IOException {
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        CardGame cardGame = new CardGame(DealtPack.of(values, 2), Files.createTempDirectory("cardgame"),
+                LogFormat.TEXT, LogLevel.NONE);
+        cardGame.setTurnBudget(0);
+        GameResult result = cardGame.run();
 
+        assertFalse(result.hasWinner());
+        assertEquals(0, result.getTotalTurns());
+        assertThrows(IllegalArgumentException.class, () -> new CardGame().setTurnBudget(-1));
+    }
 
-}
+    @Test
+    public void testRunsPlayersOnGivenExecutor() throws IOException {
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        CardGame cardGame = new CardGame(DealtPack.of(values, 2), Files.createTempDirectory("cardgame"),
+                LogFormat.TEXT, LogLevel.NONE);
+        AtomicInteger started = new AtomicInteger();
+        Executor executor = task -> {
+            started.incrementAndGet();
+            new Thread(task).start();
+        };
+        GameResult result = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> cardGame.run(executor));
 
+        assertTrue(result.hasWinner());
+        assertEquals(2, started.get());
+        // Players only run on virtual threads through an executor like this one, not through a mode
+        assertThrows(IllegalArgumentException.class, () -> ExecutionMode.fromArgs(new String[] {"--threads=virtual"}));
+    }
+
+    @Test
+    public void testUnwinnablePackIsAbandoned() throws IOException {
+        // No face value appears four times, so no hand can ever win
+        int[] values = {1, 2, 3, 4, 5, 6, 7, 8, 1, 2, 3, 4, 5, 6, 7, 8};
+        Path outputDirectory = Files.createTempDirectory("cardgame");
+        DealtPack dealtPack = DealtPack.of(values, 2);
+        assertFalse(dealtPack.isWinnable());
+        GameResult result = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                () -> new CardGame(dealtPack, outputDirectory, LogFormat.TEXT, LogLevel.SUMMARY).run());
+
+        assertFalse(result.hasWinner());
+        assertEquals(0, result.getTotalTurns());
+        String output = new String(Files.readAllBytes(outputDirectory.resolve("player1_output.txt")));
+        assertEquals("player 1 initial hand 1 3 5 7 \n", output);
+    }
+
+    @Test
+    public void testSegmentedRunStopsEverySegment() throws IOException {
+        PackGenerator generator = new PackGenerator(64, 11);
+        for (int segments : new int[] {1, 3, 64}) {
+            Path outputDirectory = Files.createTempDirectory("cardgame");
+            CardGame cardGame = new CardGame(generator.dealtPack(0), outputDirectory, LogFormat.TEXT, LogLevel.SUMMARY);
+            ExecutorService executor = Executors.newCachedThreadPool();
+            GameResult result;
+            try {
+                result = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> cardGame.runSegmented(segments, executor));
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(result.hasWinner());
+            assertOneWinnerKeepingEveryCard(outputDirectory, 64);
+        }
+    }
+
+    @Test
+    public void testActorRunStopsEveryWorker() throws IOException {
+        PackGenerator generator = new PackGenerator(64, 13);
+        for (int workers : new int[] {1, 4}) {
+            Path outputDirectory = Files.createTempDirectory("cardgame");
+            CardGame cardGame = new CardGame(generator.dealtPack(0), outputDirectory, LogFormat.TEXT, LogLevel.SUMMARY);
+            ExecutorService executor = Executors.newCachedThreadPool();
+            GameResult result;
+            try {
+                result = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> cardGame.runActors(workers, executor));
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(result.hasWinner());
+            assertOneWinnerKeepingEveryCard(outputDirectory, 64);
+        }
+    }
+
+    @Test
+    public void testActorRunStopsWhenAbandoned() throws IOException {
+        int[] values = {2, 2, 3, 3, 1, 2, 1, 3, 3, 3, 3, 3, 3, 3, 3, 3};
+        CardGame cardGame = new CardGame(DealtPack.of(values, 2), Files.createTempDirectory("cardgame"),
+                LogFormat.TEXT, LogLevel.NONE);
+        cardGame.setTurnBudget(1000);
+        GameResult result = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> cardGame.run(ExecutionMode.ACTORS));
+        assertFalse(cardGame.isGameInProgress());
+        assertTrue(result.getTotalTurns() <= 2 * 1000);
+        assertThrows(IllegalArgumentException.class, () -> new CardGame().runActors(0, Runnable::run));
+    }
+
+    /**
+     * Checks the output files of a finished game: exactly one player says they won, and the final
+     * hands and decks hold all 8n cards between them.
+     */
+    private static void assertOneWinnerKeepingEveryCard(Path outputDirectory, int noOfPlayers) throws IOException {
+        int winners = 0;
+        int cards = 0;
+        for (int i = 1; i <= noOfPlayers; i++) {
+            String output = new String(Files.readAllBytes(outputDirectory.resolve("player" + i + "_output.txt")));
+            if (output.contains("player " + i + " wins\n")) {
+                winners++;
+            }
+            cards += output.substring(output.indexOf("final hand")).split(" ").length - 3;
+            String deck = new String(Files.readAllBytes(outputDirectory.resolve("deck" + i + "_output.txt")));
+            cards += deck.trim().split(" ").length - 2;
+        }
+        assertEquals(1, winners);
+        assertEquals(8 * noOfPlayers, cards);
+    }
+
+    @Test
+    public void testSegmentedRunNeedsASegment() {
+        assertThrows(IllegalArgumentException.class, () -> new CardGame().runSegmented(0, Runnable::run));
+    }
+
+    @Test
+    public void testSegmentedRunRejectsGameAlreadyRun() throws IOException {
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        CardGame cardGame = new CardGame(DealtPack.of(values, 2), Files.createTempDirectory("cardgame"),
+                LogFormat.TEXT, LogLevel.NONE);
+        cardGame.run();
+        assertThrows(IllegalStateException.class, () -> cardGame.runSegmented(1, Runnable::run));
+    }
+}
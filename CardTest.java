@@ -1,12 +1,8 @@
 import org.junit.Test;
-import static org.junit.Assert.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.assertFalse;
 
 
 public class CardTest {
@@ -30,4 +26,25 @@ public class CardTest {
         Card card = new Card(expectedFaceValue);
         assertEquals(expectedFaceValue, card.faceValue());
     }
+
+    @Test
+    public void testOfReturnsSharedInstance() {
+        assertSame(Card.of(7), Card.of(7));
+        assertSame(Card.of(5000), Card.of(5000));
+        assertEquals(5000, Card.of(5000).faceValue());
+        assertEquals(new Card(7), Card.of(7));
+    }
+
+    @Test
+    public void testOfNegativeValue() {
+        assertEquals(-3, Card.of(-3).faceValue());
+    }
+
+    @Test
+    public void testOfValueBeyondCache() {
+        // Only an invalid pack can hold such a value, so it is not cached, but it must not hang either
+        assertEquals(Integer.MAX_VALUE, Card.of(Integer.MAX_VALUE).faceValue());
+        assertEquals(Card.of(Integer.MAX_VALUE), Card.of(Integer.MAX_VALUE));
+        assertSame(Card.of(2_000_000), Card.of(2_000_000));
+    }
 }
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * The DealtPack class holds a pack of cards already dealt round-robin into the players' starting
+ * hands and the decks' starting contents, as face values.
+ * Card k of the first half of the pack goes to player (k mod n) + 1 and card k of the second half
+ * to deck (k mod n) + 1, so each hand and each deck gets four cards.
+ */
+public class DealtPack {
+    /**
+     * Number of players the pack was dealt to.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The starting hand of each player; player p's four cards start at 4(p - 1), in hand order.
+     */
+    private final int[] hands;
+
+    /**
+     * The starting contents of each deck; deck d's four cards start at 4(d - 1), from top to bottom.
+     */
+    private final int[] decks;
+
+    /**
+     * The first rule the pack was found to break when it was read.
+     */
+    private final PackReport report;
+
+    /**
+     * Constructs a dealt pack from the hands and decks it was dealt into.
+     *
+     * @param noOfPlayers the number of players the pack was dealt to
+     * @param hands the four cards of each player's hand, player by player
+     * @param decks the four cards of each deck, deck by deck
+     * @param report the first rule the pack was found to break, or the valid report
+     */
+    public DealtPack(int noOfPlayers, int[] hands, int[] decks, PackReport report) {
+        if (hands.length != 4 * noOfPlayers || decks.length != 4 * noOfPlayers) {
+            throw new IllegalArgumentException("Every player and deck needs exactly four cards");
+        }
+        this.noOfPlayers = noOfPlayers;
+        this.hands = hands;
+        this.decks = decks;
+        this.report = report;
+    }
+
+    /**
+     * Deals a pack of face values round-robin, checking it with the {@link PackValidator}.
+     * Only the first 8n cards are dealt.
+     *
+     * @param pack the face values of the pack, in the order they are dealt
+     * @param noOfPlayers the number of players to deal to
+     * @return the dealt pack
+     * @throws IllegalArgumentException if the pack has too few cards to deal
+     */
+    public static DealtPack of(int[] pack, int noOfPlayers) {
+        if (pack.length < 8 * noOfPlayers) {
+            throw new IllegalArgumentException("A pack for " + noOfPlayers + " players needs "
+                    + (8 * noOfPlayers) + " cards but has " + pack.length);
+        }
+        int[] hands = new int[4 * noOfPlayers];
+        int[] decks = new int[4 * noOfPlayers];
+        for (int k = 0; k < 8 * noOfPlayers; k++) {
+            place(hands, decks, noOfPlayers, k, pack[k]);
+        }
+        return new DealtPack(noOfPlayers, hands, decks, PackValidator.validate(pack, noOfPlayers));
+    }
+
+    /**
+     * Puts card k of a pack where round-robin dealing sends it.
+     *
+     * @param hands the hands being dealt into
+     * @param decks the decks being dealt into
+     * @param noOfPlayers the number of players being dealt to
+     * @param k the position of the card in the pack, starting from 0
+     * @param faceValue the face value of the card
+     */
+    static void place(int[] hands, int[] decks, int noOfPlayers, long k, int faceValue) {
+        int half = 4 * noOfPlayers;
+        if (k < half) {
+            int card = (int) k;
+            hands[4 * (card % noOfPlayers) + card / noOfPlayers] = faceValue;
+        } else {
+            int card = (int) (k - half);
+            decks[4 * (card % noOfPlayers) + card / noOfPlayers] = faceValue;
+        }
+    }
+
+    /**
+     * Gets the number of players the pack was dealt to.
+     *
+     * @return the number of players
+     */
+    public int getNoOfPlayers() {
+        return noOfPlayers;
+    }
+
+    /**
+     * Copies the face values of a player's starting hand.
+     *
+     * @param playerIndex the index of the player
+     * @return the four face values in hand order
+     */
+    public int[] handOf(int playerIndex) {
+        int[] hand = new int[4];
+        System.arraycopy(hands, 4 * (playerIndex - 1), hand, 0, 4);
+        return hand;
+    }
+
+    /**
+     * Copies the face values of a deck's starting contents.
+     *
+     * @param deckIndex the index of the deck
+     * @return the four face values from top to bottom
+     */
+    public int[] deckOf(int deckIndex) {
+        int[] deck = new int[4];
+        System.arraycopy(decks, 4 * (deckIndex - 1), deck, 0, 4);
+        return deck;
+    }
+
+    /**
+     * Gets one card of a player's starting hand without copying the hand.
+     *
+     * @param playerIndex the index of the player
+     * @param slot the position of the card in hand order, from 0 to 3
+     * @return the face value of the card
+     */
+    public int handCard(int playerIndex, int slot) {
+        return hands[4 * (playerIndex - 1) + slot];
+    }
+
+    /**
+     * Gets one card of a deck's starting contents without copying the deck.
+     *
+     * @param deckIndex the index of the deck
+     * @param slot the position of the card from the top, from 0 to 3
+     * @return the face value of the card
+     */
+    public int deckCard(int deckIndex, int slot) {
+        return decks[4 * (deckIndex - 1) + slot];
+    }
+
+    /**
+     * Checks whether the pack followed the rules of a valid pack when it was read.
+     *
+     * @return {@code true} unless a problem was found
+     */
+    public boolean isValid() {
+        return report.isValid();
+    }
+
+    /**
+     * Checks whether the cards dealt can ever make a winning hand, which needs four cards of one face value.
+     *
+     * @return {@code true} if some face value was dealt at least four times
+     */
+    public boolean isWinnable() {
+        if (report.isValid()) {
+            return true;
+        }
+        int[] cards = Arrays.copyOf(hands, hands.length + decks.length);
+        System.arraycopy(decks, 0, cards, hands.length, decks.length);
+        return PackValidator.isWinnable(cards);
+    }
+
+    /**
+     * Gets the first rule the pack was found to break.
+     *
+     * @return the report of the pack
+     */
+    public PackReport getReport() {
+        return report;
+    }
+}
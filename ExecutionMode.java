@@ -0,0 +1,56 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The ExecutionMode enum selects whether each player runs on a platform thread of its own or players share threads.
+ */
+public enum ExecutionMode {
+    /**
+     * One platform thread per player.
+     */
+    PLATFORM,
+
+    /**
+     * One platform thread per core, each running a contiguous segment of the ring of players, so most
+     * cards are handed on without crossing threads; see {@link CardGame#runSegmented(int, java.util.concurrent.Executor)}.
+     */
+    SEGMENTED,
+
+    /**
+     * One platform thread per core, running the players as actors that are only scheduled when a card
+     * reaches or leaves them; see {@link CardGame#runActors(int, java.util.concurrent.Executor)}.
+     */
+    ACTORS;
+
+    /**
+     * The command line option used to select the mode, e.g. {@code --threads=segmented}.
+     */
+    public static final String OPTION = "--threads=";
+
+    /**
+     * Picks the mode from the command line arguments, defaulting to {@link #PLATFORM}.
+     *
+     * @param args the command line arguments
+     * @return the selected execution mode
+     * @throws IllegalArgumentException if the option names an unknown mode
+     */
+    public static ExecutionMode fromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(OPTION)) {
+                return valueOf(arg.substring(OPTION.length()).toUpperCase());
+            }
+        }
+        return PLATFORM;
+    }
+
+    /**
+     * Creates the executor the game runs its players or segments on: a cached thread pool that can
+     * run every task at once. To run the players on other threads, pass an executor to
+     * {@link CardGame#run(java.util.concurrent.Executor)} instead.
+     *
+     * @return a cached thread pool
+     */
+    public ExecutorService newExecutor() {
+        return Executors.newCachedThreadPool();
+    }
+}
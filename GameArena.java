@@ -0,0 +1,254 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The GameArena class holds the state of a whole game in one block of off-heap memory, laid out as
+ * a struct of arrays of ints indexed by player or deck: every hand, then the head and tail position
+ * of every deck, then the number of turns each player has taken, then the ring buffer of every deck.
+ * A game of n players takes {@link #BYTES_PER_PLAYER} bytes per player and no objects per player
+ * or card, so even games with millions of players leave the garbage collector nothing to do.
+ * <p>
+ * Each deck is a bounded single-producer/single-consumer ring, like {@link CardDeck}: the player on
+ * its left is the only one to add cards and the player on its right the only one to take them.
+ * The positions are published with release and acquire accesses, so the two players may run on
+ * different threads. A hand is only used by its own player.
+ * <p>
+ * All indices are zero-based.
+ */
+public class GameArena {
+    /**
+     * The number of cards each deck can hold, a power of two. The decks hold four cards each on
+     * average, so some player can always take a turn.
+     */
+    public static final int DECK_CAPACITY = 8;
+
+    /**
+     * The number of bytes the arena takes per player: a hand of four cards, the head, tail and turn
+     * count, and a deck ring.
+     */
+    public static final int BYTES_PER_PLAYER = Integer.BYTES * (4 + 3 + DECK_CAPACITY);
+
+    /**
+     * Reads and writes ints of the arena with memory ordering.
+     */
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    /**
+     * The memory of the arena.
+     */
+    private final ByteBuffer memory;
+
+    /**
+     * Number of players in the game, and of decks.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The byte offset of the deck heads.
+     */
+    private final int heads;
+
+    /**
+     * The byte offset of the deck tails.
+     */
+    private final int tails;
+
+    /**
+     * The byte offset of the turn counts.
+     */
+    private final int turns;
+
+    /**
+     * The byte offset of the deck rings.
+     */
+    private final int rings;
+
+    /**
+     * Allocates an arena for a game and puts the dealt cards in it.
+     *
+     * @param dealtPack the starting hands and deck contents
+     * @throws IllegalArgumentException if the game is too large for one arena
+     */
+    public GameArena(DealtPack dealtPack) {
+        this.noOfPlayers = dealtPack.getNoOfPlayers();
+        if (noOfPlayers > Integer.MAX_VALUE / BYTES_PER_PLAYER) {
+            throw new IllegalArgumentException("A game of " + noOfPlayers + " players does not fit in one arena");
+        }
+        this.heads = Integer.BYTES * 4 * noOfPlayers;
+        this.tails = heads + Integer.BYTES * noOfPlayers;
+        this.turns = tails + Integer.BYTES * noOfPlayers;
+        this.rings = turns + Integer.BYTES * noOfPlayers;
+        this.memory = ByteBuffer.allocateDirect(BYTES_PER_PLAYER * noOfPlayers).order(ByteOrder.nativeOrder());
+        for (int p = 0; p < noOfPlayers; p++) {
+            for (int i = 0; i < 4; i++) {
+                setHandCard(p, i, dealtPack.handCard(p + 1, i));
+                addCard(p, dealtPack.deckCard(p + 1, i));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of players in the game.
+     *
+     * @return the number of players
+     */
+    public int getNoOfPlayers() {
+        return noOfPlayers;
+    }
+
+    /**
+     * Gets the size of the arena.
+     *
+     * @return the number of bytes of off-heap memory the arena takes
+     */
+    public long byteSize() {
+        return memory.capacity();
+    }
+
+    /**
+     * Gets a card of a player's hand.
+     *
+     * @param player the index of the player
+     * @param slot the position of the card in hand order, from 0 to 3
+     * @return the face value of the card
+     */
+    public int handCard(int player, int slot) {
+        return memory.getInt(Integer.BYTES * (4 * player + slot));
+    }
+
+    /**
+     * Sets a card of a player's hand.
+     *
+     * @param player the index of the player
+     * @param slot the position of the card in hand order, from 0 to 3
+     * @param faceValue the face value of the card
+     */
+    public void setHandCard(int player, int slot, int faceValue) {
+        memory.putInt(Integer.BYTES * (4 * player + slot), faceValue);
+    }
+
+    /**
+     * Gets the number of turns a player has taken.
+     *
+     * @param player the index of the player
+     * @return the number of turns
+     */
+    public int turnsTaken(int player) {
+        return memory.getInt(turns + Integer.BYTES * player);
+    }
+
+    /**
+     * Counts a turn of a player; only called by the player.
+     *
+     * @param player the index of the player
+     * @return the number of turns the player has now taken
+     */
+    public int countTurn(int player) {
+        int taken = turnsTaken(player) + 1;
+        memory.putInt(turns + Integer.BYTES * player, taken);
+        return taken;
+    }
+
+    /**
+     * Gets the number of cards in a deck.
+     *
+     * @param deck the index of the deck
+     * @return the number of cards
+     */
+    public int deckSize(int deck) {
+        return (int) INT.getAcquire(memory, tails + Integer.BYTES * deck)
+                - (int) INT.getAcquire(memory, heads + Integer.BYTES * deck);
+    }
+
+    /**
+     * Checks whether a deck has a card to take; only called by the consumer of the deck.
+     *
+     * @param deck the index of the deck
+     * @return {@code true} if the deck is not empty
+     */
+    public boolean hasCard(int deck) {
+        return memory.getInt(heads + Integer.BYTES * deck) != (int) INT.getAcquire(memory, tails + Integer.BYTES * deck);
+    }
+
+    /**
+     * Checks whether a deck has room for another card; only called by the producer of the deck.
+     *
+     * @param deck the index of the deck
+     * @return {@code true} if the deck is not full
+     */
+    public boolean hasRoom(int deck) {
+        return memory.getInt(tails + Integer.BYTES * deck)
+                - (int) INT.getAcquire(memory, heads + Integer.BYTES * deck) < DECK_CAPACITY;
+    }
+
+    /**
+     * Takes the top card of a deck, which must not be empty; only called by the consumer of the deck.
+     *
+     * @param deck the index of the deck
+     * @return the face value of the card
+     */
+    public int takeCard(int deck) {
+        int headOffset = heads + Integer.BYTES * deck;
+        int head = memory.getInt(headOffset);
+        int faceValue = memory.getInt(slotOffset(deck, head));
+        // Publishes the free slot to the producer
+        INT.setRelease(memory, headOffset, head + 1);
+        return faceValue;
+    }
+
+    /**
+     * Adds a card to the bottom of a deck, which must not be full; only called by the producer of the deck.
+     *
+     * @param deck the index of the deck
+     * @param faceValue the face value of the card
+     */
+    public void addCard(int deck, int faceValue) {
+        int tailOffset = tails + Integer.BYTES * deck;
+        int tail = memory.getInt(tailOffset);
+        memory.putInt(slotOffset(deck, tail), faceValue);
+        // Publishes the card to the consumer
+        INT.setRelease(memory, tailOffset, tail + 1);
+    }
+
+    /**
+     * Copies the face values of a player's hand.
+     *
+     * @param player the index of the player
+     * @return the four face values in hand order
+     */
+    public int[] handOf(int player) {
+        int[] hand = new int[4];
+        for (int i = 0; i < 4; i++) {
+            hand[i] = handCard(player, i);
+        }
+        return hand;
+    }
+
+    /**
+     * Copies the face values of a deck; only safe once its players have stopped.
+     *
+     * @param deck the index of the deck
+     * @return the face values from top to bottom
+     */
+    public int[] deckOf(int deck) {
+        int head = memory.getInt(heads + Integer.BYTES * deck);
+        int[] cards = new int[deckSize(deck)];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = memory.getInt(slotOffset(deck, head + i));
+        }
+        return cards;
+    }
+
+    /**
+     * Gets the byte offset of the slot of a deck's ring that a position wraps onto.
+     *
+     * @param deck the index of the deck
+     * @param position the head or tail position
+     * @return the byte offset of the slot
+     */
+    private int slotOffset(int deck, int position) {
+        return rings + Integer.BYTES * (DECK_CAPACITY * deck + (position & (DECK_CAPACITY - 1)));
+    }
+}
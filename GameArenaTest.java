@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArenaTest {
+
+    /**
+     * A two player pack, dealt the same way as by {@link CardGame}.
+     */
+    private static final int[] PACK = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+
+    @Test
+    void testDealMatchesDealtPack() {
+        DealtPack dealtPack = DealtPack.of(PACK, 2);
+        GameArena arena = new GameArena(dealtPack);
+        assertEquals(2, arena.getNoOfPlayers());
+        assertEquals(2L * GameArena.BYTES_PER_PLAYER, arena.byteSize());
+        for (int p = 0; p < 2; p++) {
+            assertArrayEquals(dealtPack.handOf(p + 1), arena.handOf(p));
+            assertArrayEquals(dealtPack.deckOf(p + 1), arena.deckOf(p));
+            assertEquals(0, arena.turnsTaken(p));
+        }
+    }
+
+    @Test
+    void testDeckIsBoundedRing() {
+        GameArena arena = new GameArena(DealtPack.of(PACK, 2));
+        for (int i = 0; i < GameArena.DECK_CAPACITY - 4; i++) {
+            assertTrue(arena.hasRoom(0));
+            arena.addCard(0, 9);
+        }
+        assertFalse(arena.hasRoom(0));
+        assertEquals(GameArena.DECK_CAPACITY, arena.deckSize(0));
+
+        // Wraps around the ring several times
+        for (int i = 0; i < 3 * GameArena.DECK_CAPACITY; i++) {
+            arena.takeCard(0);
+            assertTrue(arena.hasRoom(0));
+            arena.addCard(0, i);
+        }
+        for (int i = 2 * GameArena.DECK_CAPACITY; i < 3 * GameArena.DECK_CAPACITY; i++) {
+            assertTrue(arena.hasCard(0));
+            assertEquals(i, arena.takeCard(0));
+        }
+        assertFalse(arena.hasCard(0));
+        assertEquals(0, arena.deckOf(0).length);
+    }
+
+    @Test
+    void testHandAndTurns() {
+        GameArena arena = new GameArena(DealtPack.of(PACK, 2));
+        arena.setHandCard(1, 3, 7);
+        assertEquals(7, arena.handCard(1, 3));
+        assertArrayEquals(new int[] {2, 3, 4, 7}, arena.handOf(1));
+        assertEquals(1, arena.countTurn(1));
+        assertEquals(2, arena.countTurn(1));
+        assertEquals(0, arena.turnsTaken(0));
+    }
+}
@@ -0,0 +1,393 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The GameLog class writes the output files of a card game in the background.
+ * Players record their actions into the reusable chunks of an {@link OutputSink} and hand over whole
+ * chunks, while the deck files are put on the same queue whole. A single writer thread drains the
+ * queue in batches and writes everything through {@link OutputFiles}, which creates each file on its
+ * first write and bounds how many files are open at once.
+ * The files are written as text or as binary records, depending on the {@link LogFormat} of the log.
+ * Output file names are resolved against the directory the log was created for.
+ * <p>
+ * At the end of the game the log can {@link #startFinalStage() hand its files over} to the threads
+ * writing the final outputs: from then on every file is written and closed by the thread that
+ * writes to it, so files written by different threads are written in parallel.
+ */
+public class GameLog implements AutoCloseable {
+    /**
+     * The largest number of events the writer thread takes off the queue at once.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * The kinds of event that can be logged.
+     */
+    private enum Kind { CHUNK, REPLACE, FLUSH, CLOSE, STOP }
+
+    /**
+     * A single entry on the queue; only the fields relevant to its kind are set.
+     */
+    private static final class Event {
+        private final Kind kind;
+        private final String fileName;
+        private final OutputSink sink;
+        private final byte[] bytes;
+        private final int length;
+        private final CountDownLatch done;
+
+        private Event(Kind kind, String fileName, OutputSink sink, byte[] bytes, int length, CountDownLatch done) {
+            this.kind = kind;
+            this.fileName = fileName;
+            this.sink = sink;
+            this.bytes = bytes;
+            this.length = length;
+            this.done = done;
+        }
+    }
+
+    /**
+     * The directory the output files are written to.
+     */
+    private final Path directory;
+
+    /**
+     * The format the output files are written in.
+     */
+    private final LogFormat format;
+
+    /**
+     * The events waiting to be written.
+     */
+    private final LinkedBlockingQueue<Event> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * The output files, created on first write and kept open in a bounded pool; only written by the
+     * writer thread until the final stage, and then by whichever thread writes each file.
+     */
+    private final OutputFiles files;
+
+    /**
+     * Every sink created by the log, so their unfinished chunks can be handed over on a flush.
+     */
+    private final CopyOnWriteArrayList<OutputSink> sinks = new CopyOnWriteArrayList<>();
+
+    /**
+     * The background thread that writes the events, started on the first event.
+     */
+    private volatile Thread writerThread;
+
+    /**
+     * Guards starting the writer thread, so only the first event starts it.
+     */
+    private final ReentrantLock startLock = new ReentrantLock();
+
+    /**
+     * Flag indicating whether the log has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Flag indicating whether the final stage has started and files are written by the calling threads.
+     */
+    private volatile boolean direct;
+
+    /**
+     * Constructs a log that writes its files to the current working directory.
+     */
+    public GameLog() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * Constructs a log that writes text files to the given directory.
+     *
+     * @param directory the directory the output files are written to
+     */
+    public GameLog(Path directory) {
+        this(directory, LogFormat.TEXT);
+    }
+
+    /**
+     * Constructs a log that writes its files to the given directory in the given format.
+     *
+     * @param directory the directory the output files are written to
+     * @param format the format the output files are written in
+     */
+    public GameLog(Path directory, LogFormat format) {
+        this(directory, format, OutputFiles.DEFAULT_MAX_OPEN_FILES);
+    }
+
+    /**
+     * Constructs a log that writes its files to the given directory in the given format, keeping at
+     * most the given number of files open at once.
+     *
+     * @param directory the directory the output files are written to
+     * @param format the format the output files are written in
+     * @param maxOpenFiles the largest number of output files kept open at once
+     */
+    public GameLog(Path directory, LogFormat format, int maxOpenFiles) {
+        this.directory = directory;
+        this.format = format;
+        this.files = new OutputFiles(directory, maxOpenFiles);
+    }
+
+    /**
+     * Gets the format the output files are written in.
+     *
+     * @return the log format
+     */
+    public LogFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Resolves the name of an output file against the directory of the log.
+     *
+     * @param fileName the name of the output file
+     * @return the path the file is written to
+     */
+    public Path resolve(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    /**
+     * Creates the sink that records a player's actions into the player's output file.
+     * Everything written to the file should go through its sink, so the actions stay in order.
+     *
+     * @param playerIndex the index of the player
+     * @return the new sink
+     */
+    public OutputSink playerSink(int playerIndex) {
+        String fileName = "player" + playerIndex + "_output" + format.extension();
+        OutputSink sink = format == LogFormat.TEXT
+                ? new TextOutputSink(this, fileName)
+                : new BinaryOutputSink(this, fileName);
+        sinks.add(sink);
+        return sink;
+    }
+
+    /**
+     * Hands a filled chunk of a sink to the writer thread, which recycles it once written.
+     *
+     * @param sink the sink the chunk belongs to
+     * @param bytes the chunk
+     * @param length the number of bytes of the chunk to write
+     */
+    void publish(OutputSink sink, byte[] bytes, int length) {
+        if (direct) {
+            files.writeAndClose(sink.getFileName(), bytes, length);
+            sink.recycle(bytes);
+            return;
+        }
+        enqueue(new Event(Kind.CHUNK, sink.getFileName(), sink, bytes, length, null));
+    }
+
+    /**
+     * Replaces the output file of a deck with the deck's contents.
+     *
+     * @param deckIndex the index of the deck
+     * @param cards the face values of the cards in the deck, from top to bottom
+     */
+    public void deckContents(int deckIndex, int[] cards) {
+        String fileName = "deck" + deckIndex + "_output" + format.extension();
+        if (format == LogFormat.BINARY) {
+            replace(fileName, BinaryOutputSink.deckRecords(deckIndex, cards));
+            return;
+        }
+        StringBuilder text = new StringBuilder("deck").append(deckIndex).append(" contents: ");
+        for (int card : cards) {
+            text.append(card).append(' ');
+        }
+        text.append('\n');
+        replace(fileName, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the whole contents of a file.
+     *
+     * @param fileName the output file to overwrite
+     * @param bytes the new contents of the file
+     */
+    private void replace(String fileName, byte[] bytes) {
+        if (direct) {
+            files.replace(fileName, bytes);
+            return;
+        }
+        enqueue(new Event(Kind.REPLACE, fileName, null, bytes, bytes.length, null));
+    }
+
+    /**
+     * Waits until every event logged before this call has been written and flushed to its file,
+     * including the unfinished chunks of the sinks.
+     */
+    public void flush() {
+        publishSinks();
+        if (direct) {
+            files.flush();
+            return;
+        }
+        awaitMarker(Kind.FLUSH);
+    }
+
+    /**
+     * Starts the final stage of the log: waits for the writer thread to write everything logged so
+     * far and stops it, leaving the files open. Afterwards sinks and deck contents are written by the
+     * threads that log them, and {@link #finishFile(OutputSink)} closes a player's file.
+     * The caller must make sure no two threads write to the same file at once.
+     */
+    public void startFinalStage() {
+        if (closed || direct) {
+            return;
+        }
+        publishSinks();
+        awaitMarker(Kind.STOP);
+        direct = true;
+    }
+
+    /**
+     * Writes the unfinished chunk of a sink and closes its output file.
+     * Must only be called during the final stage.
+     *
+     * @param sink the sink whose file is finished
+     * @throws IllegalStateException if the final stage has not started
+     */
+    public void finishFile(OutputSink sink) {
+        if (!direct) {
+            throw new IllegalStateException("The final stage of the game log has not started");
+        }
+        sink.publish();
+        files.close(sink.getFileName());
+    }
+
+    /**
+     * Writes every outstanding event, closes all output files and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        publishSinks();
+        if (direct) {
+            files.close();
+        } else {
+            awaitMarker(Kind.CLOSE);
+        }
+        closed = true;
+    }
+
+    /**
+     * Hands the unfinished chunk of every sink to the writer thread.
+     */
+    private void publishSinks() {
+        for (OutputSink sink : sinks) {
+            sink.publish();
+        }
+    }
+
+    /**
+     * Puts a marker event on the queue and waits for the writer thread to reach it.
+     *
+     * @param kind the kind of marker
+     */
+    private void awaitMarker(Kind kind) {
+        if (writerThread == null || closed) {
+            // Nothing is left to write, so there is nothing to wait for
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Event(kind, null, null, null, 0, done));
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Puts an event on the queue, starting the writer thread if needed.
+     *
+     * @param event the event to log
+     */
+    private void enqueue(Event event) {
+        if (closed) {
+            throw new IllegalStateException("The game log has been closed");
+        }
+        if (writerThread == null) {
+            startWriter();
+        }
+        queue.add(event);
+    }
+
+    /**
+     * Starts the background writer thread once.
+     */
+    private void startWriter() {
+        startLock.lock();
+        try {
+            if (writerThread == null) {
+                Thread thread = new Thread(this::drain, "game-log-writer");
+                thread.setDaemon(true);
+                thread.start();
+                writerThread = thread;
+            }
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    /**
+     * The body of the writer thread: takes events off the queue in batches and writes them.
+     */
+    private void drain() {
+        ArrayList<Event> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            for (Event event : batch) {
+                switch (event.kind) {
+                    case FLUSH:
+                        files.flush();
+                        event.done.countDown();
+                        break;
+                    case CLOSE:
+                        files.close();
+                        event.done.countDown();
+                        return;
+                    case STOP:
+                        // Leaves the files open for the final stage
+                        event.done.countDown();
+                        return;
+                    case CHUNK:
+                        files.write(event.fileName, event.bytes, event.length);
+                        event.sink.recycle(event.bytes);
+                        break;
+                    case REPLACE:
+                        files.replace(event.fileName, event.bytes);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown event " + event.kind);
+                }
+            }
+            batch.clear();
+        }
+    }
+}
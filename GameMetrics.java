@@ -0,0 +1,306 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The GameMetrics class collects what the players of a game are doing while it runs: the turns
+ * each player has taken, how often each deck was empty when drawn from, how deep each deck got,
+ * and {@link LatencyHistogram latency histograms} of drawing, discarding, logging and checking for
+ * a win. Counters are {@link LongAdder}s and each player only touches the counters of its own
+ * player and decks, so recording costs a few uncontended increments and clock reads per turn.
+ * <p>
+ * The metrics can be registered as a JMX MBean and dumped periodically to a stream.
+ */
+public class GameMetrics implements GameMetricsMBean {
+    /**
+     * The turns taken by each player, indexed by player index minus one.
+     */
+    private final LongAdder[] turns;
+
+    /**
+     * The draws that found each deck empty, indexed by deck index minus one.
+     */
+    private final LongAdder[] emptyDraws;
+
+    /**
+     * The most cards each deck has held after a discard, indexed by deck index minus one.
+     */
+    private final LongAccumulator[] maxDepths;
+
+    /**
+     * How long players waited in {@link CardDeck#takeCard()}.
+     */
+    private final LatencyHistogram takeCard = new LatencyHistogram();
+
+    /**
+     * How long players spent in {@link CardDeck#addCard(Card)}.
+     */
+    private final LatencyHistogram addCard = new LatencyHistogram();
+
+    /**
+     * How long players spent logging a turn.
+     */
+    private final LatencyHistogram log = new LatencyHistogram();
+
+    /**
+     * How long the win check took.
+     */
+    private final LatencyHistogram winCheck = new LatencyHistogram();
+
+    /**
+     * The name the metrics are registered under with JMX, or {@code null} if they are not registered.
+     */
+    private ObjectName objectName;
+
+    /**
+     * The thread dumping snapshots, or {@code null} if none are being dumped.
+     */
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Guards registering with JMX and starting and stopping the dumps.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs empty metrics for a game.
+     *
+     * @param noOfPlayers the number of players, and decks, in the game
+     */
+    public GameMetrics(int noOfPlayers) {
+        turns = new LongAdder[noOfPlayers];
+        emptyDraws = new LongAdder[noOfPlayers];
+        maxDepths = new LongAccumulator[noOfPlayers];
+        for (int i = 0; i < noOfPlayers; i++) {
+            turns[i] = new LongAdder();
+            emptyDraws[i] = new LongAdder();
+            maxDepths[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    /**
+     * Counts a turn taken by a player.
+     *
+     * @param playerIndex the index of the player
+     */
+    public void turnTaken(int playerIndex) {
+        turns[playerIndex - 1].increment();
+    }
+
+    /**
+     * Counts a draw that found a deck empty.
+     *
+     * @param deckIndex the index of the deck
+     */
+    public void emptyDraw(int deckIndex) {
+        emptyDraws[deckIndex - 1].increment();
+    }
+
+    /**
+     * Records how many cards a deck holds after a discard.
+     *
+     * @param deckIndex the index of the deck
+     * @param depth the number of cards in the deck
+     */
+    public void deckDepth(int deckIndex, int depth) {
+        maxDepths[deckIndex - 1].accumulate(depth);
+    }
+
+    /**
+     * Gets the histogram of how long players waited to draw a card.
+     *
+     * @return the draw latency histogram
+     */
+    public LatencyHistogram takeCard() {
+        return takeCard;
+    }
+
+    /**
+     * Gets the histogram of how long players took to discard a card.
+     *
+     * @return the discard latency histogram
+     */
+    public LatencyHistogram addCard() {
+        return addCard;
+    }
+
+    /**
+     * Gets the histogram of how long players took to log a turn.
+     *
+     * @return the logging latency histogram
+     */
+    public LatencyHistogram log() {
+        return log;
+    }
+
+    /**
+     * Gets the histogram of how long the win check took.
+     *
+     * @return the win check latency histogram
+     */
+    public LatencyHistogram winCheck() {
+        return winCheck;
+    }
+
+    @Override
+    public long getTotalTurns() {
+        long total = 0;
+        for (LongAdder playerTurns : turns) {
+            total += playerTurns.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long[] getTurnsPerPlayer() {
+        long[] sums = new long[turns.length];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = turns[i].sum();
+        }
+        return sums;
+    }
+
+    @Override
+    public long[] getEmptyDraws() {
+        long[] sums = new long[emptyDraws.length];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = emptyDraws[i].sum();
+        }
+        return sums;
+    }
+
+    @Override
+    public long[] getMaxDeckDepths() {
+        long[] depths = new long[maxDepths.length];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = maxDepths[i].get();
+        }
+        return depths;
+    }
+
+    @Override
+    public String getTakeCardLatency() {
+        return takeCard.toString();
+    }
+
+    @Override
+    public String getAddCardLatency() {
+        return addCard.toString();
+    }
+
+    @Override
+    public String getLogLatency() {
+        return log.toString();
+    }
+
+    @Override
+    public String getWinCheckLatency() {
+        return winCheck.toString();
+    }
+
+    @Override
+    public String snapshot() {
+        long emptyTotal = 0;
+        for (long empty : getEmptyDraws()) {
+            emptyTotal += empty;
+        }
+        long deepest = 0;
+        for (long depth : getMaxDeckDepths()) {
+            deepest = Math.max(deepest, depth);
+        }
+        return "turns=" + getTotalTurns() + " emptyDraws=" + emptyTotal + " maxDeckDepth=" + deepest
+                + "\n  takeCard  " + takeCard
+                + "\n  addCard   " + addCard
+                + "\n  log       " + log
+                + "\n  winCheck  " + winCheck;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server as {@code CardGame:type=GameMetrics,name=<name>}.
+     *
+     * @param name the name of the game
+     * @throws IllegalStateException if the metrics cannot be registered
+     */
+    public void register(String name) {
+        lock.lock();
+        try {
+            if (objectName != null) {
+                return;
+            }
+            ObjectName candidate = new ObjectName("CardGame:type=GameMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the game metrics", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server, if they were registered.
+     */
+    public void unregister() {
+        lock.lock();
+        try {
+            if (objectName == null) {
+                return;
+            }
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            objectName = null;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister the game metrics", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts printing a snapshot of the metrics at a fixed rate on a daemon thread.
+     *
+     * @param periodMillis the time between snapshots in milliseconds
+     * @param out the stream the snapshots are printed to
+     */
+    public void startDump(long periodMillis, PrintStream out) {
+        lock.lock();
+        try {
+            if (dumper != null) {
+                return;
+            }
+            dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "game-metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> out.println(snapshot()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops printing snapshots, if they are being printed.
+     */
+    public void stopDump() {
+        lock.lock();
+        try {
+            if (dumper != null) {
+                dumper.shutdownNow();
+                dumper = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * The management interface through which {@link GameMetrics} is exposed over JMX.
+ */
+public interface GameMetricsMBean {
+    /**
+     * Gets the number of turns taken by all the players.
+     *
+     * @return the total number of turns
+     */
+    long getTotalTurns();
+
+    /**
+     * Gets the number of turns each player has taken, player 1 first.
+     *
+     * @return the turns of each player
+     */
+    long[] getTurnsPerPlayer();
+
+    /**
+     * Gets how many draws found each deck empty, deck 1 first.
+     *
+     * @return the empty draws of each deck
+     */
+    long[] getEmptyDraws();
+
+    /**
+     * Gets the most cards each deck has held after a discard, deck 1 first.
+     *
+     * @return the maximum depth of each deck
+     */
+    long[] getMaxDeckDepths();
+
+    /**
+     * Summarises how long players waited in {@code takeCard}.
+     *
+     * @return the latency summary
+     */
+    String getTakeCardLatency();
+
+    /**
+     * Summarises how long players spent in {@code addCard}.
+     *
+     * @return the latency summary
+     */
+    String getAddCardLatency();
+
+    /**
+     * Summarises how long players spent logging a turn.
+     *
+     * @return the latency summary
+     */
+    String getLogLatency();
+
+    /**
+     * Summarises how long the win check took.
+     *
+     * @return the latency summary
+     */
+    String getWinCheckLatency();
+
+    /**
+     * Takes a snapshot of every metric as text.
+     *
+     * @return the snapshot
+     */
+    String snapshot();
+}
@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMetricsTest {
+
+    @Test
+    void testGameRecordsMetrics() throws IOException {
+        // Player 1 always wins this pack on its first turn
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        CardGame game = new CardGame(DealtPack.of(values, 2), Files.createTempDirectory("metrics"));
+        GameMetrics metrics = game.enableMetrics();
+
+        GameResult result = game.run();
+
+        assertEquals(result.getTotalTurns(), metrics.getTotalTurns());
+        assertTrue(metrics.getTurnsPerPlayer()[0] >= 1);
+        assertEquals(metrics.getTotalTurns(), metrics.winCheck().getCount());
+        assertTrue(metrics.takeCard().getCount() >= metrics.getTotalTurns());
+        assertTrue(metrics.getMaxDeckDepths()[1] >= 4);
+        assertThrows(IllegalStateException.class, game::enableMetrics);
+    }
+
+    @Test
+    void testSegmentedGameRecordsDraws() throws IOException {
+        // Enough players that segments find empty decks on many passes before a game is won
+        int noOfPlayers = 64;
+        CardGame game = new CardGame(new PackGenerator(noOfPlayers, 7).dealtPack(0), Files.createTempDirectory("metrics"),
+                LogFormat.TEXT, LogLevel.NONE);
+        GameMetrics metrics = game.enableMetrics();
+
+        GameResult result = game.run(ExecutionMode.SEGMENTED);
+
+        assertEquals(result.getTotalTurns(), metrics.getTotalTurns());
+        long emptyDraws = 0;
+        for (long draws : metrics.getEmptyDraws()) {
+            emptyDraws += draws;
+        }
+        // Only draws that find a card are timed, and a turn counts at most one empty draw
+        assertEquals(metrics.getTotalTurns(), metrics.takeCard().getCount());
+        assertTrue(metrics.takeCard().getCount() >= 1);
+        // The turn a player is still trying to take when the game ends may also count one
+        assertTrue(emptyDraws <= metrics.getTotalTurns() + noOfPlayers);
+    }
+
+    @Test
+    void testCountersAndSnapshot() {
+        GameMetrics metrics = new GameMetrics(3);
+        metrics.turnTaken(1);
+        metrics.turnTaken(3);
+        metrics.turnTaken(3);
+        metrics.emptyDraw(2);
+        metrics.deckDepth(3, 6);
+        metrics.deckDepth(3, 2);
+        metrics.addCard().record(2_000);
+
+        assertArrayEquals(new long[] {1, 0, 2}, metrics.getTurnsPerPlayer());
+        assertArrayEquals(new long[] {0, 1, 0}, metrics.getEmptyDraws());
+        assertArrayEquals(new long[] {0, 0, 6}, metrics.getMaxDeckDepths());
+        String snapshot = metrics.snapshot();
+        assertTrue(snapshot.startsWith("turns=3 emptyDraws=1 maxDeckDepth=6"));
+        assertTrue(metrics.getAddCardLatency().startsWith("count=1 "));
+    }
+
+    @Test
+    void testRegistersWithJmx() throws JMException {
+        GameMetrics metrics = new GameMetrics(2);
+        metrics.turnTaken(2);
+        metrics.register("metrics-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("CardGame:type=GameMetrics,name=" + ObjectName.quote("metrics-test"));
+        try {
+            assertEquals(1L, server.getAttribute(name, "TotalTurns"));
+            assertArrayEquals(new long[] {0, 1}, (long[]) server.getAttribute(name, "TurnsPerPlayer"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
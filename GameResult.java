@@ -0,0 +1,136 @@
+/**
+ * The GameResult class holds the outcome of a finished card game.
+ */
+public class GameResult {
+    /**
+     * The number of players in the game.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The index of the winning player, or 0 if nobody won.
+     */
+    private final int winnerIndex;
+
+    /**
+     * The total number of turns taken by all players.
+     */
+    private final long totalTurns;
+
+    /**
+     * The wall-clock time the game took to run, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * The time from the game being won to the last player stopping, in nanoseconds.
+     */
+    private final long shutdownNanos;
+
+    /**
+     * The time taken to write the final hands and decks once every player had stopped, in nanoseconds.
+     */
+    private final long finalOutputNanos;
+
+    /**
+     * Constructs a new result for a finished game whose players all stopped as soon as it was won.
+     *
+     * @param noOfPlayers the number of players in the game
+     * @param winnerIndex the index of the winning player, or 0 if nobody won
+     * @param totalTurns the total number of turns taken by all players
+     * @param elapsedNanos the wall-clock time the game took to run, in nanoseconds
+     */
+    public GameResult(int noOfPlayers, int winnerIndex, long totalTurns, long elapsedNanos) {
+        this(noOfPlayers, winnerIndex, totalTurns, elapsedNanos, 0, 0);
+    }
+
+    /**
+     * Constructs a new result for a finished game.
+     *
+     * @param noOfPlayers the number of players in the game
+     * @param winnerIndex the index of the winning player, or 0 if nobody won
+     * @param totalTurns the total number of turns taken by all players
+     * @param elapsedNanos the wall-clock time the game took to run, in nanoseconds
+     * @param shutdownNanos the time from the game being won to the last player stopping, in nanoseconds
+     * @param finalOutputNanos the time taken to write the final hands and decks, in nanoseconds
+     */
+    public GameResult(int noOfPlayers, int winnerIndex, long totalTurns, long elapsedNanos, long shutdownNanos,
+                      long finalOutputNanos) {
+        this.noOfPlayers = noOfPlayers;
+        this.winnerIndex = winnerIndex;
+        this.totalTurns = totalTurns;
+        this.elapsedNanos = elapsedNanos;
+        this.shutdownNanos = shutdownNanos;
+        this.finalOutputNanos = finalOutputNanos;
+    }
+
+    /**
+     * Gets the number of players in the game.
+     *
+     * @return the number of players
+     */
+    public int getNoOfPlayers() {
+        return noOfPlayers;
+    }
+
+    /**
+     * Gets the index of the winning player.
+     *
+     * @return the index of the winner, or 0 if nobody won
+     */
+    public int getWinnerIndex() {
+        return winnerIndex;
+    }
+
+    /**
+     * Checks whether the game had a winner.
+     *
+     * @return {@code true} if a player won the game
+     */
+    public boolean hasWinner() {
+        return winnerIndex != 0;
+    }
+
+    /**
+     * Gets the total number of turns taken by all players.
+     *
+     * @return the total number of turns
+     */
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Gets the wall-clock time the game took to run.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the time from the game being won to the last player stopping.
+     *
+     * @return the shutdown time in nanoseconds, or 0 if nobody won or the game ran on one thread
+     */
+    public long getShutdownNanos() {
+        return shutdownNanos;
+    }
+
+    /**
+     * Gets the time taken to write the final hands and decks once every player had stopped.
+     *
+     * @return the final output time in nanoseconds, or 0 if no final outputs were written
+     */
+    public long getFinalOutputNanos() {
+        return finalOutputNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "GameResult{players=" + noOfPlayers + ", winner=" + winnerIndex + ", turns=" + totalTurns
+                + ", elapsedNanos=" + elapsedNanos + ", shutdownNanos=" + shutdownNanos
+                + ", finalOutputNanos=" + finalOutputNanos + "}";
+    }
+}
@@ -0,0 +1,260 @@
+import java.util.Arrays;
+
+/**
+ * The Hand class holds the face values of the cards in a player's hand as primitive ints.
+ * Besides the cards in hand order, it keeps a small table of how many times each distinct value
+ * appears, how many of the player's preferred value are held, and the count of the most frequent
+ * value, all updated incrementally. A hand never holds more than {@link #CAPACITY} cards, so the
+ * table has at most that many entries and the discard choice and win check take constant time
+ * without allocating.
+ */
+public class Hand {
+    /**
+     * The most cards a hand can hold: four kept cards plus the one drawn during a turn.
+     */
+    public static final int CAPACITY = 5;
+
+    /**
+     * The face value the player wants to collect.
+     */
+    private int preferredValue;
+
+    /**
+     * The face values of the cards, in hand order.
+     */
+    private final int[] cards = new int[CAPACITY];
+
+    /**
+     * The number of cards in the hand.
+     */
+    private int size;
+
+    /**
+     * The distinct face values in the hand, in no particular order.
+     */
+    private final int[] distinctValues = new int[CAPACITY];
+
+    /**
+     * How many times each entry of {@link #distinctValues} appears in the hand.
+     */
+    private final int[] distinctCounts = new int[CAPACITY];
+
+    /**
+     * The number of entries in the distinct value table.
+     */
+    private int distinct;
+
+    /**
+     * How many distinct values appear exactly c times, indexed by c.
+     */
+    private final int[] valuesWithCount = new int[CAPACITY + 1];
+
+    /**
+     * The number of times the most frequent value appears.
+     */
+    private int maxCount;
+
+    /**
+     * The number of cards of the preferred value.
+     */
+    private int preferredCount;
+
+    /**
+     * Constructs an empty hand for a player who collects the given value.
+     *
+     * @param preferredValue the face value the player wants to collect
+     */
+    public Hand(int preferredValue) {
+        this.preferredValue = preferredValue;
+    }
+
+    /**
+     * Gets the number of cards in the hand.
+     *
+     * @return the number of cards
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the face value of a card in the hand.
+     *
+     * @param index the position of the card in hand order
+     * @return the face value of the card
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for hand of " + size);
+        }
+        return cards[index];
+    }
+
+    /**
+     * Gets the number of cards of the preferred value in the hand.
+     *
+     * @return the number of preferred cards
+     */
+    public int preferredCount() {
+        return preferredCount;
+    }
+
+    /**
+     * Gets the number of times the most frequent value appears in the hand.
+     *
+     * @return the highest count of any value
+     */
+    public int maxCount() {
+        return maxCount;
+    }
+
+    /**
+     * Removes every card from the hand.
+     */
+    public void clear() {
+        size = 0;
+        distinct = 0;
+        maxCount = 0;
+        preferredCount = 0;
+        Arrays.fill(valuesWithCount, 0);
+    }
+
+    /**
+     * Removes every card from the hand and hands it to a player who collects another value, so one
+     * hand can play the turns of several players whose cards are kept elsewhere between turns.
+     *
+     * @param preferredValue the face value the player wants to collect
+     */
+    public void reset(int preferredValue) {
+        clear();
+        this.preferredValue = preferredValue;
+    }
+
+    /**
+     * Adds a card to the end of the hand.
+     *
+     * @param value the face value of the card
+     * @throws IllegalStateException if the hand is already full
+     */
+    public void add(int value) {
+        if (size == CAPACITY) {
+            throw new IllegalStateException("A hand cannot hold more than " + CAPACITY + " cards");
+        }
+        cards[size++] = value;
+        if (value == preferredValue) {
+            preferredCount++;
+        }
+        int entry = entryOf(value);
+        if (entry < 0) {
+            entry = distinct++;
+            distinctValues[entry] = value;
+            distinctCounts[entry] = 0;
+        }
+        int count = ++distinctCounts[entry];
+        if (count > 1) {
+            valuesWithCount[count - 1]--;
+        }
+        valuesWithCount[count]++;
+        if (count > maxCount) {
+            maxCount = count;
+        }
+    }
+
+    /**
+     * Removes the first card that is not of the preferred value, keeping the order of the others.
+     * If every card is of the preferred value, the last card is removed instead.
+     *
+     * @return the face value of the removed card
+     * @throws IllegalStateException if the hand is empty
+     */
+    public int discard() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot discard from an empty hand");
+        }
+        int index = size - 1;
+        if (preferredCount < size) {
+            index = 0;
+            while (cards[index] == preferredValue) {
+                index++;
+            }
+        }
+        return removeAt(index);
+    }
+
+    /**
+     * Checks whether every card in the hand has the same face value.
+     *
+     * @return {@code true} if the hand is not empty and all its cards are equal
+     */
+    public boolean isWinning() {
+        return size > 0 && maxCount == size;
+    }
+
+    /**
+     * Copies the face values of the hand into a new array.
+     *
+     * @return the face values in hand order
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(cards, size);
+    }
+
+    /**
+     * Returns the face values of the hand, each followed by a space, as used in the output files.
+     *
+     * @return the hand as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            text.append(cards[i]).append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Removes the card at a position, shifting the later cards down.
+     *
+     * @param index the position of the card in hand order
+     * @return the face value of the removed card
+     */
+    private int removeAt(int index) {
+        int value = cards[index];
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        size--;
+        if (value == preferredValue) {
+            preferredCount--;
+        }
+        int entry = entryOf(value);
+        int count = distinctCounts[entry]--;
+        valuesWithCount[count]--;
+        if (count > 1) {
+            valuesWithCount[count - 1]++;
+        } else {
+            // Last card of this value, so drop its entry from the table
+            distinct--;
+            distinctValues[entry] = distinctValues[distinct];
+            distinctCounts[entry] = distinctCounts[distinct];
+        }
+        if (count == maxCount && valuesWithCount[count] == 0) {
+            maxCount--;
+        }
+        return value;
+    }
+
+    /**
+     * Finds the entry of a value in the distinct value table.
+     *
+     * @param value the face value to look for
+     * @return the position of the entry, or -1 if the value is not in the hand
+     */
+    private int entryOf(int value) {
+        for (int i = 0; i < distinct; i++) {
+            if (distinctValues[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
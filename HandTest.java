@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandTest {
+
+    private static Hand handOf(int preferredValue, int... values) {
+        Hand hand = new Hand(preferredValue);
+        for (int value : values) {
+            hand.add(value);
+        }
+        return hand;
+    }
+
+    @Test
+    void testDiscardFirstNonPreferredKeepsOrder() {
+        Hand hand = handOf(2, 2, 5, 2, 7, 5);
+        assertEquals(5, hand.discard());
+        assertArrayEquals(new int[] {2, 2, 7, 5}, hand.toArray());
+        assertEquals("2 2 7 5 ", hand.toString());
+    }
+
+    @Test
+    void testDiscardWhenAllPreferred() {
+        Hand hand = handOf(3, 3, 3, 3);
+        assertEquals(3, hand.discard());
+        assertEquals(2, hand.size());
+    }
+
+    @Test
+    void testCountsTrackAddAndDiscard() {
+        Hand hand = handOf(1, 4, 1, 4, 4);
+        assertEquals(1, hand.preferredCount());
+        assertEquals(3, hand.maxCount());
+        assertFalse(hand.isWinning());
+
+        assertEquals(4, hand.discard());
+        assertEquals(2, hand.maxCount());
+        hand.add(1);
+        hand.add(1);
+        assertEquals(3, hand.preferredCount());
+        assertEquals(4, hand.discard());
+        assertEquals(4, hand.discard());
+        hand.add(1);
+        assertEquals(4, hand.maxCount());
+        assertTrue(hand.isWinning());
+    }
+
+    @Test
+    void testEmptyHandIsNotWinning() {
+        assertFalse(new Hand(1).isWinning());
+        assertThrows(IllegalStateException.class, () -> new Hand(1).discard());
+    }
+
+    @Test
+    void testHandIsBounded() {
+        Hand hand = handOf(1, 1, 2, 3, 4, 5);
+        assertThrows(IllegalStateException.class, () -> hand.add(6));
+    }
+
+    @Test
+    void testResetChangesPreferredValue() {
+        Hand hand = handOf(1, 2, 1, 2, 1);
+        hand.reset(2);
+        for (int value : new int[] {2, 1, 2, 1, 2}) {
+            hand.add(value);
+        }
+        assertEquals(3, hand.preferredCount());
+        assertEquals(1, hand.discard());
+        assertArrayEquals(new int[] {2, 2, 1, 2}, hand.toArray());
+    }
+}
@@ -0,0 +1,427 @@
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The LockstepEngine class plays a batch of independent games with the same number of players on
+ * a single thread, advancing many of them together. Every game is played exactly as by
+ * {@link TurnBasedEngine} with round-robin turns: each step gives the same player a turn in every
+ * game where that player's left deck has a card, so each game takes the same turns and ends with
+ * the same result as a turn-based run of its pack without cycle detection.
+ * <p>
+ * Games are played in lanes. Each hand slot of each player is a row of one int per lane, as are the
+ * deck sizes and the turn counts, so a step works on {@link #SPECIES} lanes at once with the JDK
+ * Vector API: picking the first card that is not the player's own value to discard, shifting the
+ * drawn card into the hand, checking for four equal cards and counting the turn. Lanes whose game
+ * is over are masked out, and a step skips any group of lanes that are all over. At the end of each
+ * round the result of every finished game is recorded and the next pack of the batch is dealt into
+ * its lane, so the lanes stay busy however much the lengths of the games vary.
+ * <p>
+ * Decks are linked lists of nodes, one list per deck of each game, each starting with an empty
+ * node. Taking a card moves the list's start onto the node holding it, and the node given up takes
+ * the discarded card, so a turn never allocates or searches for a free node. Decks differ in size
+ * from game to game, so drawing and discarding are done lane by lane.
+ * <p>
+ * The Vector API is an incubator module in JDK 17, so the JVM needs
+ * {@code --add-modules jdk.incubator.vector} to load this class.
+ */
+public class LockstepEngine {
+    /**
+     * The vector shape the games are stepped with: the widest the CPU supports.
+     */
+    public static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * The default number of games played at once: a few vectors' worth, as more lanes only spread
+     * the state of the games over more cache lines.
+     */
+    public static final int DEFAULT_LANES = 32;
+
+    /**
+     * The outcome of a game that cannot be won, or of a lane with no game.
+     */
+    private static final int ABANDONED = -1;
+
+    /**
+     * Marks the end of a deck's linked list.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Number of players in every game.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The packs of the games, in order.
+     */
+    private final int[][] packs;
+
+    /**
+     * The number of lanes, a whole number of vectors.
+     */
+    private final int lanes;
+
+    /**
+     * The number of deck nodes each lane has: an empty first node per deck and a node per deck card.
+     */
+    private final int nodesPerLane;
+
+    /**
+     * The index of the game played in each lane, or {@link #NONE}.
+     */
+    private final int[] laneGames;
+
+    /**
+     * The face values in hand, at {@code (4 * player + slot) * lanes + lane}.
+     */
+    private final int[] hands;
+
+    /**
+     * The number of cards in each deck, at {@code deck * lanes + lane}.
+     */
+    private final int[] deckSizes;
+
+    /**
+     * The first node of each deck, which holds no card, at {@code deck * lanes + lane}.
+     */
+    private final int[] deckHeads;
+
+    /**
+     * The last node of each deck, at {@code deck * lanes + lane}.
+     */
+    private final int[] deckTails;
+
+    /**
+     * The face value held by each node, at {@code lane * nodesPerLane + node}.
+     */
+    private final int[] nodeValues;
+
+    /**
+     * The node after each node in its deck, or {@link #NONE}.
+     */
+    private final int[] nextNodes;
+
+    /**
+     * The number of turns the game in each lane has taken.
+     */
+    private final int[] turns;
+
+    /**
+     * The index of the winner of the game in each lane, 0 while it is in progress, or {@link #ABANDONED}.
+     */
+    private final int[] outcomes;
+
+    /**
+     * The card each lane draws in the current step.
+     */
+    private final int[] drawn;
+
+    /**
+     * The card each lane discards in the current step.
+     */
+    private final int[] discarded;
+
+    /**
+     * 1 for each lane that takes a turn in the current step, 0 otherwise.
+     */
+    private final int[] moved;
+
+    /**
+     * The node each lane gives up by drawing in the current step, reused for the discard.
+     */
+    private final int[] freed;
+
+    /**
+     * The results of the games, in pack order, filled in as the games end.
+     */
+    private GameResult[] results;
+
+    /**
+     * The index of the next pack to deal into a free lane.
+     */
+    private int nextGame;
+
+    /**
+     * Constructs an engine for a batch of packs, playing {@link #DEFAULT_LANES} games at once.
+     *
+     * @param packs the face values of each pack, in the order they are dealt
+     * @param noOfPlayers the number of players in every game
+     * @throws IllegalArgumentException if a pack does not have exactly 8n cards
+     */
+    public LockstepEngine(List<int[]> packs, int noOfPlayers) {
+        this(packs, noOfPlayers, DEFAULT_LANES);
+    }
+
+    /**
+     * Constructs an engine for a batch of packs.
+     *
+     * @param packs the face values of each pack, in the order they are dealt
+     * @param noOfPlayers the number of players in every game
+     * @param maxLanes the most games played at once, rounded up to a whole number of vectors
+     * @throws IllegalArgumentException if a pack does not have exactly 8n cards, there are no
+     *         lanes, or the lanes take too much memory
+     */
+    public LockstepEngine(List<int[]> packs, int noOfPlayers, int maxLanes) {
+        if (maxLanes < 1) {
+            throw new IllegalArgumentException("A batch needs at least one lane: " + maxLanes);
+        }
+        if (noOfPlayers < 1) {
+            throw new IllegalArgumentException("A game needs at least one player: " + noOfPlayers);
+        }
+        for (int[] pack : packs) {
+            if (pack.length != 8 * noOfPlayers) {
+                throw new IllegalArgumentException("A pack for " + noOfPlayers + " players needs "
+                        + (8 * noOfPlayers) + " cards but has " + pack.length);
+            }
+        }
+        this.noOfPlayers = noOfPlayers;
+        this.packs = packs.toArray(new int[0][]);
+        // No more lanes than games, but at least one vector
+        this.lanes = SPECIES.loopBound(Math.max(1, Math.min(maxLanes, this.packs.length)) + SPECIES.length() - 1);
+        this.nodesPerLane = 5 * noOfPlayers;
+        if ((long) lanes * nodesPerLane > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(lanes + " lanes of games of " + noOfPlayers
+                    + " players are too large");
+        }
+        this.laneGames = new int[lanes];
+        this.hands = new int[4 * noOfPlayers * lanes];
+        this.deckSizes = new int[noOfPlayers * lanes];
+        this.deckHeads = new int[noOfPlayers * lanes];
+        this.deckTails = new int[noOfPlayers * lanes];
+        this.nodeValues = new int[nodesPerLane * lanes];
+        this.nextNodes = new int[nodesPerLane * lanes];
+        this.turns = new int[lanes];
+        this.outcomes = new int[lanes];
+        this.drawn = new int[lanes];
+        this.discarded = new int[lanes];
+        this.moved = new int[lanes];
+        this.freed = new int[lanes];
+    }
+
+    /**
+     * Gets the number of games in the batch.
+     *
+     * @return the number of games
+     */
+    public int getNoOfGames() {
+        return packs.length;
+    }
+
+    /**
+     * Plays every game from the initial deal until somebody wins or the default turn limit is reached.
+     *
+     * @return the result of each game, in pack order
+     */
+    public GameResult[] run() {
+        return run(TurnBasedEngine.DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Plays every game from the initial deal until somebody wins or the game has taken the given
+     * number of turns. A game whose pack cannot be won is abandoned before the first turn.
+     * The elapsed time of each result is its share of the time the whole batch took.
+     *
+     * @param maxTurns the number of turns after which a game is abandoned without a winner
+     * @return the result of each game, in pack order
+     */
+    public GameResult[] run(long maxTurns) {
+        long startTime = System.nanoTime();
+        int limit = (int) Math.min(maxTurns, Integer.MAX_VALUE);
+        results = new GameResult[packs.length];
+        nextGame = 0;
+        Arrays.fill(laneGames, NONE);
+        Arrays.fill(outcomes, ABANDONED);
+        while (refill(limit) > 0) {
+            for (int player = 0; player < noOfPlayers; player++) {
+                step(player, limit);
+            }
+        }
+        long gameNanos = (System.nanoTime() - startTime) / Math.max(1, packs.length);
+        GameResult[] finished = results;
+        for (int game = 0; game < finished.length; game++) {
+            GameResult result = finished[game];
+            finished[game] = new GameResult(noOfPlayers, result.getWinnerIndex(), result.getTotalTurns(), gameNanos);
+        }
+        results = null;
+        return finished;
+    }
+
+    /**
+     * Gives one player a turn in every lane where the player can draw and the game is in progress.
+     *
+     * @param player the zero-based index of the player
+     * @param limit the number of turns after which a game is over
+     */
+    private void step(int player, int limit) {
+        int right = player + 1 == noOfPlayers ? 0 : player + 1;
+        int leftRow = player * lanes;
+        int rightRow = right * lanes;
+        int handRow = 4 * player * lanes;
+        IntVector preferred = IntVector.broadcast(SPECIES, player + 1);
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        for (int from = 0; from < lanes; from += SPECIES.length()) {
+            int to = from + SPECIES.length();
+            IntVector leftSizes = IntVector.fromArray(SPECIES, deckSizes, leftRow + from);
+            IntVector gameTurns = IntVector.fromArray(SPECIES, turns, from);
+            VectorMask<Integer> active = IntVector.fromArray(SPECIES, outcomes, from).eq(0)
+                    .and(gameTurns.lt(limit))
+                    .and(leftSizes.compare(VectorOperators.GT, 0));
+            if (!active.anyTrue()) {
+                continue;
+            }
+            IntVector taken = zero.blend(one, active);
+            taken.intoArray(moved, from);
+            draw(leftRow, from, to);
+
+            IntVector card0 = IntVector.fromArray(SPECIES, hands, handRow + from);
+            IntVector card1 = IntVector.fromArray(SPECIES, hands, handRow + lanes + from);
+            IntVector card2 = IntVector.fromArray(SPECIES, hands, handRow + 2 * lanes + from);
+            IntVector card3 = IntVector.fromArray(SPECIES, hands, handRow + 3 * lanes + from);
+            IntVector card = IntVector.fromArray(SPECIES, drawn, from);
+            // keepN is set where the first N + 1 cards are all the player's own value and are kept
+            VectorMask<Integer> keep0 = card0.eq(preferred);
+            VectorMask<Integer> keep1 = keep0.and(card1.eq(preferred));
+            VectorMask<Integer> keep2 = keep1.and(card2.eq(preferred));
+            VectorMask<Integer> keep3 = keep2.and(card3.eq(preferred));
+            // The first card that is not kept is discarded, or the drawn card if all four are
+            card0.blend(card1.blend(card2.blend(card3.blend(card, keep3), keep2), keep1), keep0)
+                    .intoArray(discarded, from);
+            // The cards after the discarded one move up a slot and the drawn card goes last
+            IntVector hand0 = card1.blend(card0, keep0);
+            IntVector hand1 = card2.blend(card1, keep1);
+            IntVector hand2 = card3.blend(card2, keep2);
+            IntVector hand3 = card.blend(card3, keep3);
+            card0.blend(hand0, active).intoArray(hands, handRow + from);
+            card1.blend(hand1, active).intoArray(hands, handRow + lanes + from);
+            card2.blend(hand2, active).intoArray(hands, handRow + 2 * lanes + from);
+            card3.blend(hand3, active).intoArray(hands, handRow + 3 * lanes + from);
+
+            VectorMask<Integer> won = hand1.eq(hand0).and(hand2.eq(hand0)).and(hand3.eq(hand0)).and(active);
+            IntVector.fromArray(SPECIES, outcomes, from).blend(preferred, won).intoArray(outcomes, from);
+            gameTurns.add(taken).intoArray(turns, from);
+            leftSizes.sub(taken).intoArray(deckSizes, leftRow + from);
+            // Loaded after the left deck is stored, as a game of one player discards to the same deck
+            IntVector.fromArray(SPECIES, deckSizes, rightRow + from).add(taken).intoArray(deckSizes, rightRow + from);
+            discard(rightRow, from, to);
+        }
+    }
+
+    /**
+     * Draws the top card of the left deck in each lane of a group that takes a turn.
+     *
+     * @param leftRow the offset of the left deck's row
+     * @param from the first lane of the group
+     * @param to one past the last lane of the group
+     */
+    private void draw(int leftRow, int from, int to) {
+        for (int lane = from; lane < to; lane++) {
+            if (moved[lane] != 0) {
+                int head = deckHeads[leftRow + lane];
+                int node = nextNodes[head];
+                drawn[lane] = nodeValues[node];
+                // The drawn card's node becomes the empty first node and the old one is reused
+                deckHeads[leftRow + lane] = node;
+                freed[lane] = head;
+            }
+        }
+    }
+
+    /**
+     * Adds the discarded card to the bottom of the right deck in each lane of a group that takes a turn.
+     *
+     * @param rightRow the offset of the right deck's row
+     * @param from the first lane of the group
+     * @param to one past the last lane of the group
+     */
+    private void discard(int rightRow, int from, int to) {
+        for (int lane = from; lane < to; lane++) {
+            if (moved[lane] != 0) {
+                int node = freed[lane];
+                nodeValues[node] = discarded[lane];
+                nextNodes[node] = NONE;
+                nextNodes[deckTails[rightRow + lane]] = node;
+                deckTails[rightRow + lane] = node;
+            }
+        }
+    }
+
+    /**
+     * Records the result of every game that is over and deals the next packs into the free lanes,
+     * skipping, with their results recorded, packs that cannot be won.
+     *
+     * @param limit the number of turns after which a game is over
+     * @return the number of lanes with a game in progress
+     */
+    private int refill(int limit) {
+        int inProgress = 0;
+        for (int from = 0; from < lanes; from += SPECIES.length()) {
+            VectorMask<Integer> playing = IntVector.fromArray(SPECIES, outcomes, from).eq(0)
+                    .and(IntVector.fromArray(SPECIES, turns, from).lt(limit));
+            if (playing.allTrue()) {
+                inProgress += SPECIES.length();
+                continue;
+            }
+            for (int lane = from; lane < from + SPECIES.length(); lane++) {
+                if (outcomes[lane] == 0 && turns[lane] < limit) {
+                    inProgress++;
+                    continue;
+                }
+                if (laneGames[lane] != NONE) {
+                    results[laneGames[lane]] = new GameResult(noOfPlayers, Math.max(0, outcomes[lane]), turns[lane], 0);
+                    laneGames[lane] = NONE;
+                }
+                while (nextGame < packs.length && laneGames[lane] == NONE) {
+                    int game = nextGame++;
+                    if (PackValidator.isWinnable(packs[game])) {
+                        deal(lane, game);
+                        inProgress++;
+                    } else {
+                        results[game] = new GameResult(noOfPlayers, 0, 0, 0);
+                    }
+                }
+            }
+        }
+        return inProgress;
+    }
+
+    /**
+     * Deals a pack into a lane round-robin, as {@link TurnBasedEngine} does: card k of the first
+     * half goes to player (k mod n) + 1 and card k of the second half to the bottom of deck (k mod n) + 1.
+     *
+     * @param lane the lane to play the game in
+     * @param game the index of the pack
+     */
+    private void deal(int lane, int game) {
+        int[] pack = packs[game];
+        laneGames[lane] = game;
+        outcomes[lane] = 0;
+        turns[lane] = 0;
+        int handCards = 4 * noOfPlayers;
+        for (int card = 0; card < handCards; card++) {
+            hands[(4 * (card % noOfPlayers) + card / noOfPlayers) * lanes + lane] = pack[card];
+        }
+        int firstNode = lane * nodesPerLane;
+        for (int deck = 0; deck < noOfPlayers; deck++) {
+            int head = firstNode + deck;
+            nextNodes[head] = NONE;
+            deckHeads[deck * lanes + lane] = head;
+            deckTails[deck * lanes + lane] = head;
+            deckSizes[deck * lanes + lane] = 0;
+        }
+        for (int card = handCards; card < pack.length; card++) {
+            int deck = (card - handCards) % noOfPlayers * lanes + lane;
+            int node = firstNode + noOfPlayers + card - handCards;
+            nodeValues[node] = pack[card];
+            nextNodes[node] = NONE;
+            nextNodes[deckTails[deck]] = node;
+            deckTails[deck] = node;
+            deckSizes[deck]++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockstepEngineTest {
+
+    /**
+     * A two player pack in which player 1 wins on their first turn.
+     */
+    private static final int[] PACK = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+
+    /**
+     * Generates packs for a number of players.
+     *
+     * @param noOfPlayers the number of players
+     * @param count the number of packs
+     * @return the packs
+     */
+    private static List<int[]> packs(int noOfPlayers, int count) {
+        PackGenerator generator = new PackGenerator(noOfPlayers, 17);
+        List<int[]> packs = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            packs.add(generator.pack(k));
+        }
+        return packs;
+    }
+
+    @Test
+    void testFirstTurnWin() {
+        GameResult[] results = new LockstepEngine(List.of(PACK, PACK, PACK), 2).run();
+        assertEquals(3, results.length);
+        for (GameResult result : results) {
+            assertEquals(1, result.getWinnerIndex());
+            assertEquals(1, result.getTotalTurns());
+        }
+    }
+
+    @Test
+    void testMatchesTurnBasedEngine() {
+        for (int noOfPlayers : new int[] {1, 3, 4, 8}) {
+            List<int[]> packs = packs(noOfPlayers, 45);
+            // Fewer lanes than games, so finished games make way for the rest
+            LockstepEngine engine = new LockstepEngine(packs, noOfPlayers, 16);
+            GameResult[] results = engine.run();
+            assertEquals(45, engine.getNoOfGames());
+            for (int k = 0; k < packs.size(); k++) {
+                GameResult expected = new TurnBasedEngine(packs.get(k), noOfPlayers).run();
+                assertEquals(expected.getWinnerIndex(), results[k].getWinnerIndex());
+                assertEquals(expected.getTotalTurns(), results[k].getTotalTurns());
+            }
+        }
+    }
+
+    @Test
+    void testTurnLimitWithoutWinner() {
+        List<int[]> packs = packs(16, 20);
+        GameResult[] results = new LockstepEngine(packs, 16).run(50);
+        for (int k = 0; k < packs.size(); k++) {
+            TurnBasedEngine turnBased = new TurnBasedEngine(packs.get(k), 16);
+            turnBased.setCycleDetection(false);
+            GameResult expected = turnBased.run(TurnBasedEngine.Schedule.ROUND_ROBIN, 0, 50);
+            assertEquals(expected.getWinnerIndex(), results[k].getWinnerIndex());
+            assertEquals(expected.getTotalTurns(), results[k].getTotalTurns());
+            assertTrue(results[k].getTotalTurns() <= 50);
+        }
+    }
+
+    @Test
+    void testUnwinnablePackTakesNoTurns() {
+        int[] unwinnable = {1, 2, 3, 4, 5, 6, 7, 8, 1, 2, 3, 4, 5, 6, 7, 8};
+        GameResult[] results = new LockstepEngine(List.of(unwinnable, PACK), 2).run();
+        assertFalse(results[0].hasWinner());
+        assertEquals(0, results[0].getTotalTurns());
+        assertEquals(1, results[1].getWinnerIndex());
+    }
+
+    @Test
+    void testRejectsBadBatches() {
+        assertThrows(IllegalArgumentException.class, () -> new LockstepEngine(List.of(PACK), 3));
+        assertThrows(IllegalArgumentException.class, () -> new LockstepEngine(List.of(PACK), 2, 0));
+        assertEquals(0, new LockstepEngine(List.of(), 2).run().length);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * The LogFormat enum selects how a game's output files are written.
+ */
+public enum LogFormat {
+    /**
+     * The human-readable {@code player<N>_output.txt} and {@code deck<N>_output.txt} files.
+     */
+    TEXT,
+
+    /**
+     * Compact {@code player<N>_output.bin} and {@code deck<N>_output.bin} files of fixed-width
+     * records, which {@link LogRenderer} renders back to the text files on demand.
+     */
+    BINARY;
+
+    /**
+     * The command line option used to select the format, e.g. {@code --log=binary}.
+     */
+    public static final String OPTION = "--log=";
+
+    /**
+     * Picks the format from the command line arguments, defaulting to {@link #TEXT}.
+     *
+     * @param args the command line arguments
+     * @return the selected log format
+     * @throws IllegalArgumentException if the option names an unknown format
+     */
+    public static LogFormat fromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(OPTION)) {
+                return valueOf(arg.substring(OPTION.length()).toUpperCase());
+            }
+        }
+        return TEXT;
+    }
+
+    /**
+     * Gets the extension of the output files written in this format.
+     *
+     * @return the file extension, including the dot
+     */
+    public String extension() {
+        return this == TEXT ? ".txt" : ".bin";
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * The LogLevel enum selects how much of a game is written to its output files.
+ * Anything a level leaves out is skipped before it is formatted, not just before it is written.
+ */
+public enum LogLevel {
+    /**
+     * Every turn of every player, and the decks at the end of the game.
+     */
+    FULL,
+
+    /**
+     * Only the initial hands, the winner and final hand lines, and the decks at the end of the game.
+     */
+    SUMMARY,
+
+    /**
+     * No output files at all; the game only returns its {@link GameResult}.
+     */
+    NONE;
+
+    /**
+     * The command line option used to select the level, e.g. {@code --verbosity=summary}.
+     */
+    public static final String OPTION = "--verbosity=";
+
+    /**
+     * Picks the level from the command line arguments, defaulting to {@link #FULL}.
+     *
+     * @param args the command line arguments
+     * @return the selected log level
+     * @throws IllegalArgumentException if the option names an unknown level
+     */
+    public static LogLevel fromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(OPTION)) {
+                return valueOf(arg.substring(OPTION.length()).toUpperCase());
+            }
+        }
+        return FULL;
+    }
+
+    /**
+     * Checks whether the draw, discard and current hand of every turn are logged.
+     *
+     * @return {@code true} if every turn is logged
+     */
+    public boolean logsTurns() {
+        return this == FULL;
+    }
+
+    /**
+     * Checks whether the initial hands, the end of the game and the decks are logged.
+     *
+     * @return {@code true} if any output files are written
+     */
+    public boolean logsSummary() {
+        return this != NONE;
+    }
+}
@@ -0,0 +1,200 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The LogRenderer class turns the binary output files written with {@link LogFormat#BINARY} back
+ * into the exact text of the {@code player<N>_output.txt} and {@code deck<N>_output.txt} files,
+ * so a game can be kept in compact form and only rendered when someone investigates it.
+ * A player's current hand after each turn is rebuilt by replaying the dealt hand and every draw and
+ * discard: a discard always removes the first card of its value, just as {@link Hand#discard()} does.
+ */
+public final class LogRenderer {
+
+    private LogRenderer() {
+    }
+
+    /**
+     * Main method to render every binary output file in a directory next to the binary file.
+     * Usage: {@code LogRenderer [directory]}, defaulting to the current working directory.
+     */
+    public static void main(String[] args) {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "");
+        try {
+            for (Path binary : renderAll(directory)) {
+                System.out.println("Rendered " + binary.getFileName());
+            }
+        } catch (IOException e) {
+            System.out.println("IOException");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Renders every {@code *_output.bin} file in a directory to the text file of the same name.
+     *
+     * @param directory the directory holding the binary files
+     * @return the binary files that were rendered, in file name order
+     * @throws IOException if a file cannot be read or written, or a binary file is malformed
+     */
+    public static List<Path> renderAll(Path directory) throws IOException {
+        List<Path> binaries;
+        try (Stream<Path> files = Files.list(directory)) {
+            binaries = files.filter(file -> file.getFileName().toString().endsWith("_output.bin"))
+                    .sorted().collect(Collectors.toList());
+        }
+        for (Path binary : binaries) {
+            String name = binary.getFileName().toString();
+            render(binary, binary.resolveSibling(name.substring(0, name.length() - ".bin".length()) + ".txt"));
+        }
+        return binaries;
+    }
+
+    /**
+     * Renders a player's or a deck's binary output file as text.
+     *
+     * @param binary the binary file
+     * @param text the text file to write, replaced if it exists
+     * @throws IOException if a file cannot be read or written, or the binary file is malformed
+     */
+    public static void render(Path binary, Path text) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(binary)));
+             BufferedWriter out = Files.newBufferedWriter(text)) {
+            new Replay(in, out).run();
+        }
+    }
+
+    /**
+     * The state of rendering one file: the hand being rebuilt, and the hand or deck line whose
+     * cards are still being read.
+     */
+    private static final class Replay {
+        private final DataInputStream in;
+        private final BufferedWriter out;
+        private int[] hand = new int[Hand.CAPACITY];
+        private int size;
+        // The line waiting for its cards, or null when no hand or deck line is open
+        private StringBuilder openLine;
+        private boolean openLineIsHand;
+
+        private Replay(DataInputStream in, BufferedWriter out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        private void run() throws IOException {
+            byte[] reserved = new byte[3];
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    in.readFully(reserved);
+                    int turn = in.readInt();
+                    int player = in.readInt();
+                    int card = in.readInt();
+                    int deck = in.readInt();
+                    record(type, turn, player, card, deck);
+                } catch (EOFException e) {
+                    throw new IOException("The binary log ends part way through a record", e);
+                }
+            }
+            closeLine();
+        }
+
+        private void record(byte type, int turn, int player, int card, int deck) throws IOException {
+            if (type == BinaryOutputSink.CARD) {
+                if (openLine == null) {
+                    throw new IOException("A card record of player " + player + " does not follow a hand or deck");
+                }
+                openLine.append(card).append(' ');
+                if (openLineIsHand) {
+                    add(card);
+                }
+                return;
+            }
+            closeLine();
+            switch (type) {
+                case BinaryOutputSink.INITIAL:
+                    size = 0;
+                    openLine("player " + player + " initial hand ", true);
+                    break;
+                case BinaryOutputSink.DRAW:
+                    writeLine("player " + player + " draws a " + card + " from deck " + deck);
+                    add(card);
+                    break;
+                case BinaryOutputSink.DISCARD:
+                    writeLine("player " + player + " discards a " + card + " to deck " + deck);
+                    remove(card, player);
+                    StringBuilder current = new StringBuilder("player ").append(player).append(" current hand is ");
+                    for (int i = 0; i < size; i++) {
+                        current.append(hand[i]).append(' ');
+                    }
+                    writeLine(current.toString());
+                    break;
+                case BinaryOutputSink.FINAL:
+                    if (card == player) {
+                        writeLine("player " + player + " wins");
+                    } else {
+                        writeLine("player " + card + " has informed player " + player + " that player "
+                                + card + " has won");
+                    }
+                    writeLine("player " + player + " exits");
+                    openLine("player " + player + " final hand ", false);
+                    break;
+                case BinaryOutputSink.DECK:
+                    openLine("deck" + deck + " contents: ", false);
+                    break;
+                default:
+                    throw new IOException("Unknown record type " + type);
+            }
+        }
+
+        private void openLine(String start, boolean isHand) {
+            openLine = new StringBuilder(start);
+            openLineIsHand = isHand;
+        }
+
+        private void closeLine() throws IOException {
+            if (openLine != null) {
+                writeLine(openLine.toString());
+                openLine = null;
+            }
+        }
+
+        private void writeLine(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+        }
+
+        private void add(int card) {
+            if (size == hand.length) {
+                hand = Arrays.copyOf(hand, size * 2);
+            }
+            hand[size++] = card;
+        }
+
+        private void remove(int card, int player) throws IOException {
+            for (int i = 0; i < size; i++) {
+                if (hand[i] == card) {
+                    System.arraycopy(hand, i + 1, hand, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+            throw new IOException("Player " + player + " discards a " + card + " it does not hold");
+        }
+    }
+}
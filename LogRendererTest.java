@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRendererTest {
+
+    private static void logGame(GameLog gameLog) {
+        OutputSink sink = gameLog.playerSink(1);
+        sink.initialHand(1, new int[] {1, 2, 3, 4}, 4);
+        sink.draw(1, 1, 5, 1);
+        sink.discard(1, 1, 2, 2);
+        sink.currentHand(1, 1, new int[] {1, 3, 4, 5}, 4);
+        sink.draw(2, 1, 1, 1);
+        sink.discard(2, 1, 3, 2);
+        sink.currentHand(2, 1, new int[] {1, 4, 5, 1}, 4);
+        sink.finalHand(2, 1, 2, new int[] {1, 4, 5, 1}, 4);
+        gameLog.deckContents(1, new int[] {7, 8});
+        gameLog.deckContents(2, new int[0]);
+        gameLog.close();
+    }
+
+    @Test
+    void testRendersSameTextAsTextLog() throws IOException {
+        Path text = Files.createTempDirectory("text");
+        Path binary = Files.createTempDirectory("binary");
+        logGame(new GameLog(text, LogFormat.TEXT));
+        logGame(new GameLog(binary, LogFormat.BINARY));
+
+        assertEquals(3, LogRenderer.renderAll(binary).size());
+        for (String file : new String[] {"player1_output.txt", "deck1_output.txt", "deck2_output.txt"}) {
+            assertEquals(Files.readString(text.resolve(file)), Files.readString(binary.resolve(file)), file);
+        }
+    }
+
+    @Test
+    void testBinaryRecordsAreFixedWidth() throws IOException {
+        Path binary = Files.createTempDirectory("binary");
+        logGame(new GameLog(binary, LogFormat.BINARY));
+        // Initial and final hands are a header and four cards each, plus two draws and two discards
+        assertEquals(14 * BinaryOutputSink.RECORD_SIZE, Files.size(binary.resolve("player1_output.bin")));
+        assertEquals(3 * BinaryOutputSink.RECORD_SIZE, Files.size(binary.resolve("deck1_output.bin")));
+    }
+
+    @Test
+    void testRendersBinaryGame() throws IOException {
+        // Player 1 always wins this pack on its first turn
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        Path directory = Files.createTempDirectory("binary");
+        GameResult result = new CardGame(DealtPack.of(values, 2), directory, LogFormat.BINARY).run();
+        assertEquals(1, result.getWinnerIndex());
+        assertFalse(Files.exists(directory.resolve("player1_output.txt")));
+
+        LogRenderer.renderAll(directory);
+
+        String output = Files.readString(directory.resolve("player1_output.txt"));
+        assertTrue(output.startsWith("player 1 initial hand 1 1 1 3 \n"
+                + "player 1 draws a 1 from deck 1\n"
+                + "player 1 discards a 3 to deck 2\n"
+                + "player 1 current hand is 1 1 1 1 \n"));
+        assertTrue(output.endsWith("player 1 wins\nplayer 1 exits\nplayer 1 final hand 1 1 1 1 \n"));
+        assertTrue(Files.readString(directory.resolve("deck2_output.txt")).startsWith("deck2 contents: "));
+    }
+
+    @Test
+    void testRejectsTruncatedLog() throws IOException {
+        Path binary = Files.createTempDirectory("binary");
+        logGame(new GameLog(binary, LogFormat.BINARY));
+        Path player = binary.resolve("player1_output.bin");
+        byte[] bytes = Files.readAllBytes(player);
+        Files.write(player, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> LogRenderer.render(player, binary.resolve("player1_output.txt")));
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.stream.IntStream;
+
+/**
+ * The MappedPackReader class reads very large pack files by memory-mapping them and parsing
+ * chunks of the file in parallel, dealing each card straight into the players' hands and the
+ * decks as it is parsed instead of building a list of the whole pack first.
+ * <p>
+ * The file is split into chunks that end on line boundaries. A first parallel pass counts the
+ * lines of each chunk so every chunk knows the position in the pack of its first card; a second
+ * parallel pass parses the values, checks the rules of {@link PackValidator} on the fly
+ * and places each card where round-robin dealing sends it.
+ * <p>
+ * The chunks run in any order, so a problem is always reported on its lowest line: a line that is
+ * not a number is the lowest such line of any chunk, and if any card breaks a rule the chunks are
+ * scanned again in order to find the first card that does.
+ */
+public final class MappedPackReader {
+    /**
+     * The approximate number of bytes in each chunk of the file.
+     */
+    private static final long CHUNK_SIZE = 8L << 20;
+
+    private MappedPackReader() {
+    }
+
+    /**
+     * Reads and deals a pack file.
+     *
+     * @param file the pack file, one face value per line
+     * @param noOfPlayers the number of players to deal to
+     * @return the dealt pack, with a report of the first rule it breaks if it is not a valid pack
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the pack does not have exactly 8n cards
+     * @throws NumberFormatException if a line does not hold exactly one integer, naming the first such line
+     */
+    public static DealtPack read(Path file, int noOfPlayers) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            int chunks = bounds.length - 1;
+            MappedByteBuffer[] maps = new MappedByteBuffer[chunks];
+            long[] firstLine = new long[chunks + 1];
+            try {
+                // First pass: map each chunk and count its lines
+                IntStream.range(0, chunks).parallel().forEach(c -> {
+                    try {
+                        maps[c] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[c], bounds[c + 1] - bounds[c]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    firstLine[c + 1] = countLines(maps[c]);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (int c = 0; c < chunks; c++) {
+                firstLine[c + 1] += firstLine[c];
+            }
+            long length = firstLine[chunks];
+            if (length != 8L * noOfPlayers) {
+                throw new IllegalArgumentException("A pack for " + noOfPlayers + " players needs "
+                        + (8L * noOfPlayers) + " cards but has " + length);
+            }
+
+            // Second pass: parse, check and deal every card
+            int maxNumber = 2 * noOfPlayers;
+            int[] hands = new int[4 * noOfPlayers];
+            int[] decks = new int[4 * noOfPlayers];
+            AtomicIntegerArray counts = new AtomicIntegerArray(maxNumber + 1);
+            AtomicBoolean failed = new AtomicBoolean();
+            LongAccumulator firstInvalidLine = new LongAccumulator(Math::min, Long.MAX_VALUE);
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                ByteBuffer bytes = maps[c];
+                long line = firstLine[c];
+                int start = 0;
+                int limit = bytes.limit();
+                while (start < limit) {
+                    int end = start;
+                    while (end < limit && bytes.get(end) != '\n') {
+                        end++;
+                    }
+                    int value;
+                    try {
+                        value = parseLine(bytes, start, end, line + 1);
+                    } catch (NumberFormatException e) {
+                        // A chunk later in the file may fail first, so only the lowest line is thrown
+                        firstInvalidLine.accumulate(line + 1);
+                        return;
+                    }
+                    DealtPack.place(hands, decks, noOfPlayers, line, value);
+                    if (value < 1 || value > maxNumber || counts.incrementAndGet(value) > 4) {
+                        failed.set(true);
+                    }
+                    line++;
+                    start = end + 1;
+                }
+            });
+            if (firstInvalidLine.get() != Long.MAX_VALUE) {
+                throw invalidLine(firstInvalidLine.get());
+            }
+            // With exactly 8n cards, all in range and none more than four times, every value appears four times
+            PackReport report = failed.get() ? firstProblem(maps, maxNumber) : PackReport.valid();
+            return new DealtPack(noOfPlayers, hands, decks, report);
+        }
+    }
+
+    /**
+     * Scans the chunks again in order for the first card that breaks a rule. The parallel pass
+     * counts the copies of a value in whatever order the chunks run, so the copy it sees as the
+     * fifth need not be the fifth in the file.
+     *
+     * @param maps the chunks of the file, in order, every line of which holds an integer
+     * @param maxNumber the largest face value allowed in the pack
+     * @return the report of the first rule the pack breaks, or the valid report
+     */
+    private static PackReport firstProblem(ByteBuffer[] maps, int maxNumber) {
+        byte[] counts = new byte[maxNumber + 1];
+        long line = 0;
+        for (ByteBuffer bytes : maps) {
+            int start = 0;
+            int limit = bytes.limit();
+            while (start < limit) {
+                int end = start;
+                while (end < limit && bytes.get(end) != '\n') {
+                    end++;
+                }
+                int value = parseLine(bytes, start, end, ++line);
+                if (value < 1 || value > maxNumber) {
+                    return PackReport.outOfRange(value, line);
+                }
+                if (++counts[value] > 4) {
+                    return PackReport.overCounted(value, line);
+                }
+                start = end + 1;
+            }
+        }
+        return PackReport.valid();
+    }
+
+    /**
+     * Splits the file into chunks of about {@link #CHUNK_SIZE} bytes that each end just after a newline.
+     *
+     * @param channel the open pack file
+     * @return the byte offsets where the chunks start, followed by the size of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        long position = CHUNK_SIZE;
+        while (position < size) {
+            // Move the boundary forward to just after the next newline
+            long boundary = -1;
+            while (boundary < 0 && position < size) {
+                probe.clear();
+                int read = channel.read(probe, position);
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        boundary = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (boundary < 0 || boundary >= size) {
+                break;
+            }
+            bounds.add(boundary);
+            position = boundary + CHUNK_SIZE;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the lines in a chunk; a final line without a newline still counts.
+     *
+     * @param bytes the bytes of the chunk
+     * @return the number of lines
+     */
+    private static long countLines(ByteBuffer bytes) {
+        long lines = 0;
+        int limit = bytes.limit();
+        for (int i = 0; i < limit; i++) {
+            if (bytes.get(i) == '\n') {
+                lines++;
+            }
+        }
+        if (limit > 0 && bytes.get(limit - 1) != '\n') {
+            lines++;
+        }
+        return lines;
+    }
+
+    /**
+     * Parses one line as an integer, accepting the same input as {@code Integer.parseInt(line.trim())}.
+     *
+     * @param bytes the bytes holding the line
+     * @param from the offset of the first byte of the line
+     * @param to the offset just past the last byte of the line, excluding the newline
+     * @param line the number of the line, for the error message
+     * @return the value on the line
+     * @throws NumberFormatException if the line does not hold exactly one integer
+     */
+    private static int parseLine(ByteBuffer bytes, int from, int to, long line) {
+        while (from < to && (bytes.get(from) & 0xff) <= ' ') {
+            from++;
+        }
+        while (to > from && (bytes.get(to - 1) & 0xff) <= ' ') {
+            to--;
+        }
+        boolean negative = false;
+        if (from < to && (bytes.get(from) == '-' || bytes.get(from) == '+')) {
+            negative = bytes.get(from) == '-';
+            from++;
+        }
+        if (from == to) {
+            throw invalidLine(line);
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = bytes.get(i);
+            if (b < '0' || b > '9') {
+                throw invalidLine(line);
+            }
+            value = value * 10 + (b - '0');
+            if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                throw invalidLine(line);
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Creates the exception thrown for a line that is not a single integer.
+     *
+     * @param line the number of the line, starting from 1
+     * @return the exception to throw
+     */
+    private static NumberFormatException invalidLine(long line) {
+        return new NumberFormatException("Line " + line + " of the pack is not a whole number");
+    }
+}
@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPackReaderTest {
+
+    private static Path packFile(int... values) throws IOException {
+        StringBuilder contents = new StringBuilder();
+        for (int value : values) {
+            contents.append(value).append('\n');
+        }
+        Path file = Files.createTempFile("pack", ".txt");
+        Files.write(file, contents.toString().getBytes());
+        return file;
+    }
+
+    @Test
+    void testDealsRoundRobin() throws IOException {
+        DealtPack dealtPack = MappedPackReader.read(packFile(1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4), 2);
+        assertTrue(dealtPack.isValid());
+        assertArrayEquals(new int[] {1, 1, 1, 3}, dealtPack.handOf(1));
+        assertArrayEquals(new int[] {2, 3, 4, 4}, dealtPack.handOf(2));
+        assertArrayEquals(new int[] {1, 2, 2, 4}, dealtPack.deckOf(1));
+        assertArrayEquals(new int[] {3, 2, 3, 4}, dealtPack.deckOf(2));
+    }
+
+    @Test
+    void testMatchesInMemoryDealForLargePack() throws IOException {
+        // Large enough to be split into several chunks
+        int noOfPlayers = 300_000;
+        ArrayList<Card> pack = Tournament.generatePacks(1, noOfPlayers, 5).get(0);
+        int[] values = TurnBasedEngine.faceValues(pack);
+        DealtPack mapped = MappedPackReader.read(packFile(values), noOfPlayers);
+        DealtPack expected = DealtPack.of(values, noOfPlayers);
+        assertTrue(mapped.isValid());
+        for (int i = 1; i <= noOfPlayers; i += 997) {
+            assertArrayEquals(expected.handOf(i), mapped.handOf(i));
+            assertArrayEquals(expected.deckOf(i), mapped.deckOf(i));
+        }
+    }
+
+    @Test
+    void testReportsOutOfRangeValue() throws IOException {
+        DealtPack dealtPack = MappedPackReader.read(packFile(1, 2, 1, 3, 1, 9, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4), 2);
+        assertFalse(dealtPack.isValid());
+        assertEquals(PackReport.Violation.OUT_OF_RANGE, dealtPack.getReport().getViolation());
+        assertEquals(9, dealtPack.getReport().getValue());
+        assertEquals(6, dealtPack.getReport().getLine());
+    }
+
+    @Test
+    void testReportsFifthCopy() throws IOException {
+        DealtPack dealtPack = MappedPackReader.read(packFile(1, 1, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4), 2);
+        assertFalse(dealtPack.isValid());
+        assertEquals(PackReport.Violation.OVER_COUNTED, dealtPack.getReport().getViolation());
+        assertEquals(1, dealtPack.getReport().getValue());
+    }
+
+    @Test
+    void testReportsFirstFifthCopyAcrossChunks() throws IOException {
+        int noOfPlayers = 300_000;
+        int[] values = TurnBasedEngine.faceValues(Tournament.generatePacks(1, noOfPlayers, 5).get(0));
+        // The fifth copy of the first value is on the last line, in the last chunk
+        values[values.length - 1] = values[0];
+        PackReport expected = PackValidator.validateSequential(values, noOfPlayers);
+        Path file = packFile(values);
+        for (int run = 0; run < 5; run++) {
+            assertEquals(expected.toString(), MappedPackReader.read(file, noOfPlayers).getReport().toString());
+        }
+        assertEquals(values.length, expected.getLine());
+    }
+
+    @Test
+    void testReportsFirstInvalidLineAcrossChunks() throws IOException {
+        int noOfPlayers = 300_000;
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 8 * noOfPlayers; i++) {
+            // Lines 1000 and 2,000,000 are in different chunks
+            contents.append(i == 999 || i == 1_999_999 ? "x" : String.valueOf(i / 4 % (2 * noOfPlayers) + 1)).append('\n');
+        }
+        Path file = Files.createTempFile("pack", ".txt");
+        Files.write(file, contents.toString().getBytes());
+        for (int run = 0; run < 5; run++) {
+            NumberFormatException e = assertThrows(NumberFormatException.class,
+                    () -> MappedPackReader.read(file, noOfPlayers));
+            assertEquals("Line 1000 of the pack is not a whole number", e.getMessage());
+        }
+    }
+
+    @Test
+    void testRejectsWrongLength() throws IOException {
+        Path file = packFile(1, 2, 3);
+        assertThrows(IllegalArgumentException.class, () -> MappedPackReader.read(file, 2));
+    }
+}
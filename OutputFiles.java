@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The OutputFiles class manages the output files of a game and the streams open on them.
+ * A file is only created when something is first written to it, so players that never write
+ * cost no file at all. At most a fixed number of files are kept open at once: the streams are
+ * held in a least recently used pool, and a file whose stream was closed to make room is opened
+ * again in append mode the next time it is written.
+ * <p>
+ * Writes are not buffered, as the game log already hands over whole chunks.
+ */
+public class OutputFiles implements AutoCloseable {
+    /**
+     * The default number of files kept open at once.
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 1024;
+
+    /**
+     * The options a file is opened with the first time it is written, replacing any old contents.
+     */
+    private static final OpenOption[] CREATE = {StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE};
+
+    /**
+     * The options a file is opened with after it has been closed to make room for another file.
+     */
+    private static final OpenOption[] REOPEN = {StandardOpenOption.CREATE, StandardOpenOption.APPEND};
+
+    /**
+     * The directory the files are written to.
+     */
+    private final Path directory;
+
+    /**
+     * The largest number of files kept open at once.
+     */
+    private final int maxOpenFiles;
+
+    /**
+     * The open streams, from least to most recently used.
+     */
+    private final LinkedHashMap<String, OutputStream> open;
+
+    /**
+     * The files that have been created, so they are appended to rather than replaced when reopened.
+     */
+    private final Set<String> created = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Guards the pool of open streams.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The number of times a file has been opened.
+     */
+    private final AtomicLong opens = new AtomicLong();
+
+    /**
+     * Constructs a manager for the files of a directory, keeping the default number of files open.
+     *
+     * @param directory the directory the files are written to
+     */
+    public OutputFiles(Path directory) {
+        this(directory, DEFAULT_MAX_OPEN_FILES);
+    }
+
+    /**
+     * Constructs a manager for the files of a directory.
+     *
+     * @param directory the directory the files are written to
+     * @param maxOpenFiles the largest number of files kept open at once
+     * @throws IllegalArgumentException if {@code maxOpenFiles} is not positive
+     */
+    public OutputFiles(Path directory, int maxOpenFiles) {
+        if (maxOpenFiles < 1) {
+            throw new IllegalArgumentException("At least one file must be kept open: " + maxOpenFiles);
+        }
+        this.directory = directory;
+        this.maxOpenFiles = maxOpenFiles;
+        this.open = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OutputStream> eldest) {
+                if (size() <= OutputFiles.this.maxOpenFiles) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Appends bytes to a file, creating it on first use and keeping it open for the next write.
+     * Must not be called for the same file by two threads at once.
+     *
+     * @param fileName the name of the file
+     * @param bytes the bytes to write
+     * @param length the number of bytes to write
+     */
+    public void write(String fileName, byte[] bytes, int length) {
+        lock.lock();
+        try {
+            OutputStream stream = open.get(fileName);
+            if (stream == null) {
+                stream = openStream(fileName);
+                open.put(fileName, stream);
+            }
+            stream.write(bytes, 0, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("IOException");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends bytes to a file and closes it, creating it on first use.
+     * The pool is only locked to take the file's stream out of it, so different files can be
+     * written by different threads at the same time.
+     *
+     * @param fileName the name of the file
+     * @param bytes the bytes to write
+     * @param length the number of bytes to write
+     */
+    public void writeAndClose(String fileName, byte[] bytes, int length) {
+        OutputStream stream = take(fileName);
+        try {
+            if (stream == null) {
+                stream = openStream(fileName);
+            }
+            stream.write(bytes, 0, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("IOException");
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Replaces the whole contents of a file and closes it.
+     * Different files can be replaced by different threads at the same time.
+     *
+     * @param fileName the name of the file
+     * @param bytes the new contents of the file
+     */
+    public void replace(String fileName, byte[] bytes) {
+        closeQuietly(take(fileName));
+        created.remove(fileName);
+        writeAndClose(fileName, bytes, bytes.length);
+    }
+
+    /**
+     * Closes a file if it is open; it is appended to if it is written again.
+     *
+     * @param fileName the name of the file
+     */
+    public void close(String fileName) {
+        closeQuietly(take(fileName));
+    }
+
+    /**
+     * Flushes every open file.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            for (OutputStream stream : open.values()) {
+                stream.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("IOException");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes every open file.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            for (OutputStream stream : open.values()) {
+                closeQuietly(stream);
+            }
+            open.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of files currently open.
+     *
+     * @return the number of open files
+     */
+    public int openFiles() {
+        lock.lock();
+        try {
+            return open.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of times a file has been opened, including reopening files closed to make room.
+     *
+     * @return the number of opens
+     */
+    public long opens() {
+        return opens.get();
+    }
+
+    /**
+     * Takes the stream of a file out of the pool.
+     *
+     * @param fileName the name of the file
+     * @return the stream, or {@code null} if the file is not open
+     */
+    private OutputStream take(String fileName) {
+        lock.lock();
+        try {
+            return open.remove(fileName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a file, replacing its contents the first time and appending to it afterwards.
+     *
+     * @param fileName the name of the file
+     * @return the stream
+     * @throws IOException if the file cannot be opened
+     */
+    private OutputStream openStream(String fileName) throws IOException {
+        OpenOption[] options = created.add(fileName) ? CREATE : REOPEN;
+        OutputStream stream = Files.newOutputStream(directory.resolve(fileName), options);
+        opens.incrementAndGet();
+        return stream;
+    }
+
+    /**
+     * Closes a stream, reporting any failure.
+     *
+     * @param stream the stream to close, may be {@code null}
+     */
+    private static void closeQuietly(OutputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("IOException");
+        }
+    }
+}
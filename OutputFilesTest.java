@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputFilesTest {
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void testCreatesFilesOnFirstWrite() throws IOException {
+        Path directory = Files.createTempDirectory("files");
+        Files.writeString(directory.resolve("a.txt"), "left over from an earlier game\n");
+        OutputFiles files = new OutputFiles(directory);
+        assertFalse(Files.exists(directory.resolve("b.txt")));
+
+        files.write("a.txt", bytes("a1\n"), 3);
+        files.write("b.txt", bytes("b1\n"), 3);
+        assertEquals(2, files.openFiles());
+        files.close();
+
+        assertEquals(0, files.openFiles());
+        assertEquals("a1\n", Files.readString(directory.resolve("a.txt")));
+        assertEquals("b1\n", Files.readString(directory.resolve("b.txt")));
+    }
+
+    @Test
+    void testKeepsLeastRecentlyUsedFilesClosed() throws IOException {
+        Path directory = Files.createTempDirectory("files");
+        OutputFiles files = new OutputFiles(directory, 2);
+        for (int round = 0; round < 3; round++) {
+            for (String name : new String[] {"a.txt", "b.txt", "c.txt"}) {
+                files.write(name, bytes(name.charAt(0) + "" + round + "\n"), 3);
+                assertTrue(files.openFiles() <= 2);
+            }
+        }
+        files.close();
+
+        // Reopened files are appended to, so nothing written before a file was closed is lost
+        assertEquals("a0\na1\na2\n", Files.readString(directory.resolve("a.txt")));
+        assertEquals("c0\nc1\nc2\n", Files.readString(directory.resolve("c.txt")));
+        assertEquals(9, files.opens());
+    }
+
+    @Test
+    void testReplaceAndWriteAndCloseLeaveNothingOpen() throws IOException {
+        Path directory = Files.createTempDirectory("files");
+        OutputFiles files = new OutputFiles(directory);
+        files.write("deck.txt", bytes("old contents\n"), 13);
+        files.replace("deck.txt", bytes("new\n"));
+        files.write("player.txt", bytes("turn\n"), 5);
+        files.writeAndClose("player.txt", bytes("end\n"), 4);
+
+        assertEquals(0, files.openFiles());
+        assertEquals("new\n", Files.readString(directory.resolve("deck.txt")));
+        assertEquals("turn\nend\n", Files.readString(directory.resolve("player.txt")));
+        files.close();
+    }
+
+    @Test
+    void testRejectsEmptyPool() {
+        assertThrows(IllegalArgumentException.class, () -> new OutputFiles(Path.of(""), 0));
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The OutputSink class records the actions of one player straight into reusable byte chunks.
+ * Subclasses decide how each action is encoded, as the lines of the text output file or as binary
+ * records, without creating objects on a normal turn. A chunk is handed to the {@link GameLog}
+ * writer thread once it is full, or when the log is flushed, and the writer gives it back to the
+ * sink once it has been written so it can be filled again.
+ * <p>
+ * Every method takes the sink's lock, since a flush of the log hands the unfinished chunk over from
+ * another thread, and the final hand is written by a batch task rather than the player's own thread.
+ */
+public abstract class OutputSink {
+    /**
+     * The size of each chunk of output.
+     */
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * The most written chunks kept for reuse.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * The log the chunks are handed to.
+     */
+    private final GameLog gameLog;
+
+    /**
+     * The name of the output file the sink writes to.
+     */
+    private final String fileName;
+
+    /**
+     * Guards the chunk being filled.
+     */
+    final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Written chunks returned by the writer thread, ready to be filled again.
+     */
+    private final ArrayBlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * The chunk of a sink that has not written anything yet, so idle players hold no buffer.
+     */
+    private static final byte[] NO_CHUNK = new byte[0];
+
+    /**
+     * The chunk being filled, allocated on the first write.
+     */
+    byte[] chunk = NO_CHUNK;
+
+    /**
+     * The number of bytes of the chunk that have been filled.
+     */
+    int length;
+
+    /**
+     * Constructs a sink for an output file; sinks are created by {@link GameLog#playerSink(int)}.
+     *
+     * @param gameLog the log the chunks are handed to
+     * @param fileName the name of the output file
+     */
+    OutputSink(GameLog gameLog, String fileName) {
+        this.gameLog = gameLog;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Gets the name of the output file the sink writes to.
+     *
+     * @return the name of the output file
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Records the hand a player was dealt.
+     *
+     * @param player the index of the player
+     * @param cards the face values of the hand, in hand order
+     * @param size the number of cards in the hand
+     */
+    public abstract void initialHand(int player, int[] cards, int size);
+
+    /**
+     * Records a player drawing a card from a deck.
+     *
+     * @param turn the turn of the player, starting from 1
+     * @param player the index of the player
+     * @param card the face value of the drawn card
+     * @param deck the index of the deck the card was drawn from
+     */
+    public abstract void draw(int turn, int player, int card, int deck);
+
+    /**
+     * Records a player discarding a card to a deck.
+     *
+     * @param turn the turn of the player, starting from 1
+     * @param player the index of the player
+     * @param card the face value of the discarded card
+     * @param deck the index of the deck the card was discarded to
+     */
+    public abstract void discard(int turn, int player, int card, int deck);
+
+    /**
+     * Records a player's hand at the end of a turn.
+     *
+     * @param turn the turn of the player, starting from 1
+     * @param player the index of the player
+     * @param cards the face values of the hand, in hand order
+     * @param size the number of cards in the hand, at most {@link Hand#CAPACITY}
+     */
+    public abstract void currentHand(int turn, int player, int[] cards, int size);
+
+    /**
+     * Records the end of the game for a player: who won, and the hand the player was left with.
+     *
+     * @param turn the number of turns the player took
+     * @param player the index of the player
+     * @param winner the index of the winning player
+     * @param cards the face values of the final hand, in hand order
+     * @param size the number of cards in the final hand
+     */
+    public abstract void finalHand(int turn, int player, int winner, int[] cards, int size);
+
+    /**
+     * Hands whatever has been written so far to the log's writer thread.
+     */
+    void publish() {
+        lock.lock();
+        try {
+            if (length > 0) {
+                handOff();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a chunk that has been written so it can be filled again.
+     *
+     * @param written the chunk, whose contents are no longer needed
+     */
+    void recycle(byte[] written) {
+        pool.offer(written);
+    }
+
+    /**
+     * Makes sure the chunk has room for the given number of bytes, handing it off if it does not.
+     * Must be called with the lock held.
+     *
+     * @param bytes the number of bytes about to be written, at most the size of a chunk
+     */
+    void reserve(int bytes) {
+        if (chunk.length - length < bytes) {
+            if (length > 0) {
+                handOff();
+            } else {
+                chunk = nextChunk();
+            }
+        }
+    }
+
+    /**
+     * Hands the filled part of the chunk to the writer thread and starts a new chunk.
+     */
+    private void handOff() {
+        gameLog.publish(this, chunk, length);
+        chunk = nextChunk();
+        length = 0;
+    }
+
+    /**
+     * Takes a written chunk back from the pool, or allocates one if none has come back yet.
+     *
+     * @return an empty chunk
+     */
+    private byte[] nextChunk() {
+        byte[] next = pool.poll();
+        // Only allocates while the writer thread is behind
+        return next != null ? next : new byte[CHUNK_SIZE];
+    }
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OutputSinkTest {
+
+    @Test
+    void testTextSinkRendersLinesLikeStringFormatting() throws IOException {
+        Path directory = Files.createTempDirectory("sink");
+        GameLog gameLog = new GameLog(directory);
+        OutputSink sink = gameLog.playerSink(12);
+        sink.initialHand(12, new int[] {3, 24, 24, 1}, 4);
+        sink.draw(1, 12, 1000, 12);
+        sink.discard(1, 12, 3, 13);
+        sink.currentHand(1, 12, new int[] {24, 24, 1, 1000}, 4);
+        sink.currentHand(2, 12, new int[0], 0);
+        sink.finalHand(2, 12, 3, new int[] {24, 24, 1, 1000}, 4);
+        gameLog.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve("player12_output.txt"));
+        assertEquals(List.of(
+                "player 12 initial hand 3 24 24 1 ",
+                "player 12 draws a 1000 from deck 12",
+                "player 12 discards a 3 to deck 13",
+                "player 12 current hand is 24 24 1 1000 ",
+                "player 12 current hand is ",
+                "player 3 has informed player 12 that player 3 has won",
+                "player 12 exits",
+                "player 12 final hand 24 24 1 1000 "), lines);
+    }
+
+    @Test
+    void testKeepsOrderAcrossChunks() throws IOException {
+        Path directory = Files.createTempDirectory("sink");
+        GameLog gameLog = new GameLog(directory);
+        OutputSink sink = gameLog.playerSink(1);
+        for (int i = 0; i < 10_000; i++) {
+            sink.draw(i + 1, 1, i, 2);
+        }
+        gameLog.flush();
+        List<String> lines = Files.readAllLines(directory.resolve("player1_output.txt"));
+        assertEquals(10_000, lines.size());
+        assertEquals("player 1 draws a 9999 from deck 2", lines.get(9_999));
+        gameLog.close();
+    }
+
+    @Test
+    void testTakesChunkOnFirstWrite() throws IOException {
+        Path directory = Files.createTempDirectory("sink");
+        GameLog gameLog = new GameLog(directory);
+        OutputSink sink = gameLog.playerSink(1);
+        assertEquals(0, sink.chunk.length);
+        sink.draw(1, 1, 5, 2);
+        assertTrue(sink.chunk.length > 0);
+        gameLog.close();
+        assertEquals(List.of("player 1 draws a 5 from deck 2"),
+                Files.readAllLines(directory.resolve("player1_output.txt")));
+    }
+
+    @Test
+    void testFinalStageFinishesFilesOnCallingThread() throws IOException {
+        Path directory = Files.createTempDirectory("sink");
+        GameLog gameLog = new GameLog(directory);
+        OutputSink sink = gameLog.playerSink(1);
+        for (int i = 0; i < 1_000; i++) {
+            sink.draw(i + 1, 1, i, 2);
+        }
+        assertThrows(IllegalStateException.class, () -> gameLog.finishFile(sink));
+
+        gameLog.startFinalStage();
+        sink.finalHand(1_000, 1, 1, new int[] {1, 1, 1, 1}, 4);
+        gameLog.finishFile(sink);
+        gameLog.deckContents(2, new int[] {5, 6});
+
+        // Both files are complete before the log is closed
+        List<String> lines = Files.readAllLines(directory.resolve("player1_output.txt"));
+        assertEquals(1_003, lines.size());
+        assertEquals("player 1 draws a 999 from deck 2", lines.get(999));
+        assertEquals("player 1 final hand 1 1 1 1 ", lines.get(1_002));
+        assertEquals("deck2 contents: 5 6 \n", Files.readString(directory.resolve("deck2_output.txt")));
+        gameLog.close();
+    }
+
+    @Test
+    void testTurnLinesDoNotAllocate() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        GameLog gameLog = new GameLog(Files.createTempDirectory("sink"));
+        OutputSink sink = gameLog.playerSink(1);
+        int[] hand = {1, 1, 2, 3};
+        for (int i = 0; i < 1_000; i++) {
+            sink.draw(1, 1, 3, 1);
+        }
+        gameLog.flush();
+
+        // Thirty turns fit in a single chunk, so nothing is handed off or allocated
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 30; i++) {
+            sink.draw(i + 1, 1, 3, 1);
+            sink.discard(i + 1, 1, 2, 2);
+            sink.currentHand(i + 1, 1, hand, 4);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        gameLog.close();
+        assertEquals(0, allocated);
+    }
+}
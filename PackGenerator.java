@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * The PackGenerator class produces shuffled valid packs: 8n cards with each value from 1 to 2n
+ * appearing exactly four times.
+ * <p>
+ * A pack is shuffled with an inside-out Fisher-Yates shuffle over an {@code int[]}, which fills and
+ * shuffles the array in a single pass. Every pack is numbered, and pack k is always shuffled by a
+ * {@link SplittableRandom} seeded from the generator's seed and k, so packs can be generated in any
+ * order and on any thread and still come out the same. Packs can be handed straight to a game in
+ * memory, or written as pack files through a direct buffer.
+ */
+public class PackGenerator {
+    /**
+     * The size of the direct buffer pack files are written through.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The increment between the seeds of consecutive packs, the 64-bit golden ratio.
+     */
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Number of players each pack is for.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The seed all the packs are derived from.
+     */
+    private final long seed;
+
+    /**
+     * The buffer pack files are written through, created on the first write.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Constructs a generator of packs for the given number of players.
+     *
+     * @param noOfPlayers the number of players each pack is for
+     * @param seed the seed the packs are derived from, so the same packs can be generated again
+     */
+    public PackGenerator(int noOfPlayers, long seed) {
+        if (noOfPlayers < 1) {
+            throw new IllegalArgumentException("Number of players must be greater than 0: " + noOfPlayers);
+        }
+        this.noOfPlayers = noOfPlayers;
+        this.seed = seed;
+    }
+
+    /**
+     * Main method to write pack files.
+     * Usage: {@code PackGenerator <players> <count> <directory> [seed]}.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: PackGenerator <players> <count> <directory> [seed]");
+            return;
+        }
+        int noOfPlayers = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[1]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        long startTime = System.nanoTime();
+        try {
+            new PackGenerator(noOfPlayers, seed).writePacks(Paths.get(args[2]), count);
+        } catch (IOException e) {
+            System.out.println("IOException");
+            e.printStackTrace();
+            return;
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("Wrote %d packs in %.3f s (%.0f packs/s)%n", count, seconds, count / seconds);
+    }
+
+    /**
+     * Gets the number of players each pack is for.
+     *
+     * @return the number of players
+     */
+    public int getNoOfPlayers() {
+        return noOfPlayers;
+    }
+
+    /**
+     * Generates pack k.
+     *
+     * @param index the number of the pack
+     * @return the face values of the pack, in the order they are dealt
+     */
+    public int[] pack(long index) {
+        int[] pack = new int[8 * noOfPlayers];
+        pack(index, pack);
+        return pack;
+    }
+
+    /**
+     * Generates pack k into an existing array, so a batch can reuse one array for every pack.
+     *
+     * @param index the number of the pack
+     * @param pack the array to fill, of length 8n
+     */
+    public void pack(long index, int[] pack) {
+        if (pack.length != 8 * noOfPlayers) {
+            throw new IllegalArgumentException("A pack for " + noOfPlayers + " players needs "
+                    + (8 * noOfPlayers) + " cards but the array holds " + pack.length);
+        }
+        SplittableRandom random = new SplittableRandom(mix(seed + index * SEED_INCREMENT));
+        for (int i = 0; i < pack.length; i++) {
+            // Inside-out Fisher-Yates: card i is the next of the four copies of i / 4 + 1
+            int j = random.nextInt(i + 1);
+            pack[i] = pack[j];
+            pack[j] = i / 4 + 1;
+        }
+    }
+
+    /**
+     * Generates pack k and deals it, ready to be handed to a {@link CardGame}.
+     *
+     * @param index the number of the pack
+     * @return the dealt pack
+     */
+    public DealtPack dealtPack(long index) {
+        return DealtPack.of(pack(index), noOfPlayers);
+    }
+
+    /**
+     * Writes packs 0 to count - 1 to the files {@code pack<k>.txt} in a directory.
+     *
+     * @param directory the directory to write to, created if it does not exist
+     * @param count the number of packs to write
+     * @throws IOException if a file cannot be written
+     */
+    public void writePacks(Path directory, int count) throws IOException {
+        Files.createDirectories(directory);
+        int[] pack = new int[8 * noOfPlayers];
+        for (int k = 0; k < count; k++) {
+            pack(k, pack);
+            write(pack, directory.resolve("pack" + k + ".txt"));
+        }
+    }
+
+    /**
+     * Writes a pack as a pack file, one face value per line, replacing the file if it exists.
+     * The digits are encoded straight into a direct buffer, so no String is created per card.
+     *
+     * @param pack the face values of the pack
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(int[] pack, Path file) throws IOException {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int value : pack) {
+                // Room for a sign, ten digits and a newline
+                if (buffer.remaining() < 12) {
+                    drain(channel);
+                }
+                putValue(value);
+            }
+            drain(channel);
+        }
+    }
+
+    /**
+     * Encodes a face value and a newline into the buffer.
+     *
+     * @param value the face value
+     */
+    private void putValue(int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + remaining / divisor % 10));
+        }
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes everything in the buffer to the file and empties the buffer.
+     *
+     * @param channel the file being written
+     * @throws IOException if the file cannot be written
+     */
+    private void drain(FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Scrambles the bits of a seed so the seeds of neighbouring packs start unrelated sequences.
+     *
+     * @param z the seed to scramble
+     * @return the scrambled seed
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
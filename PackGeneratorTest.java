@@ -0,0 +1,54 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackGeneratorTest {
+
+    @Test
+    void testPacksAreValid() {
+        for (int noOfPlayers = 1; noOfPlayers <= 50; noOfPlayers += 7) {
+            PackGenerator generator = new PackGenerator(noOfPlayers, noOfPlayers);
+            for (int k = 0; k < 20; k++) {
+                assertTrue(PackValidator.validate(generator.pack(k), noOfPlayers).isValid());
+            }
+        }
+    }
+
+    @Test
+    void testPackDependsOnlyOnSeedAndIndex() {
+        PackGenerator generator = new PackGenerator(10, 7);
+        int[] reused = new int[80];
+        new PackGenerator(10, 7).pack(3, reused);
+        assertArrayEquals(generator.pack(3), reused);
+        assertFalse(Arrays.equals(generator.pack(3), generator.pack(4)));
+        assertFalse(Arrays.equals(generator.pack(3), new PackGenerator(10, 8).pack(3)));
+    }
+
+    @Test
+    void testWrittenPacksReadBack() throws IOException {
+        // Enough cards to drain the write buffer several times
+        PackGenerator generator = new PackGenerator(50_000, 3);
+        Path directory = Files.createTempDirectory("packs");
+        generator.writePacks(directory, 2);
+        assertArrayEquals(generator.pack(0), PackReader.readValues(directory.resolve("pack0.txt")));
+        assertArrayEquals(generator.pack(1), PackReader.readValues(directory.resolve("pack1.txt")));
+    }
+
+    @Test
+    void testTournamentPlaysGeneratedPacksInMemory() throws IOException {
+        PackGenerator generator = new PackGenerator(4, 21);
+        Tournament tournament = new Tournament(4, Files.createTempDirectory("tournament"), 2,
+                Tournament.Engine.TURN_BASED);
+        TournamentResult result = tournament.run(generator, 50);
+        assertEquals(50, result.getGamesPlayed());
+        for (int k = 0; k < 50; k += 7) {
+            GameResult expected = new TurnBasedEngine(generator.pack(k), 4).run();
+            assertEquals(expected.getWinnerIndex(), result.getGameResult(k).getWinnerIndex());
+        }
+    }
+}
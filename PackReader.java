@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The PackReader class loads the face values of a pack file, one integer per line.
+ * It parses the digits straight out of the file's bytes into an int array, so no String is
+ * allocated per line. Like {@code Integer.parseInt(line.trim())}, it accepts leading and trailing
+ * whitespace and an optional sign, and rejects blank lines and anything else.
+ */
+public final class PackReader {
+    /**
+     * The size of the buffer the file is read through.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PackReader() {
+    }
+
+    /**
+     * Reads every face value in a pack file.
+     *
+     * @param file the pack file
+     * @return the face values, in file order
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if a line does not hold exactly one integer
+     */
+    public static int[] readValues(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Every line but the last needs at least a digit and a newline
+            long maxLines = channel.size() / 2 + 1;
+            int[] values = new int[(int) Math.min(maxLines, 1 << 20)];
+            int count = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+            int line = 1;
+            long value = 0;
+            boolean negative = false;
+            // 0 = before the number, 1 = after the sign, 2 = in the digits, 3 = after the number
+            int state = 0;
+            boolean lineStarted = false;
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    lineStarted = b != '\n';
+                    if (b == '\n') {
+                        if (state != 2 && state != 3) {
+                            throw invalidLine(line);
+                        }
+                        if (count == values.length) {
+                            values = Arrays.copyOf(values, values.length * 2);
+                        }
+                        values[count++] = (int) (negative ? -value : value);
+                        value = 0;
+                        negative = false;
+                        state = 0;
+                        line++;
+                    } else if (b >= '0' && b <= '9' && state <= 2) {
+                        value = value * 10 + (b - '0');
+                        if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                            throw invalidLine(line);
+                        }
+                        state = 2;
+                    } else if ((b == '-' || b == '+') && state == 0) {
+                        negative = b == '-';
+                        state = 1;
+                    } else if ((b & 0xff) <= ' ' && state != 1) {
+                        // Whitespace around the number, as trimmed by String.trim()
+                        if (state == 2) {
+                            state = 3;
+                        }
+                    } else {
+                        throw invalidLine(line);
+                    }
+                }
+                buffer.clear();
+            }
+            // The last line does not need a trailing newline
+            if (state == 2 || state == 3) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count + 1);
+                }
+                values[count++] = (int) (negative ? -value : value);
+            } else if (lineStarted) {
+                throw invalidLine(line);
+            }
+            return count == values.length ? values : Arrays.copyOf(values, count);
+        }
+    }
+
+    /**
+     * Creates the exception thrown for a line that is not a single integer.
+     *
+     * @param line the number of the line, starting from 1
+     * @return the exception to throw
+     */
+    private static NumberFormatException invalidLine(int line) {
+        return new NumberFormatException("Line " + line + " of the pack is not a whole number");
+    }
+}
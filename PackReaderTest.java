@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackReaderTest {
+
+    private static Path packFile(String contents) throws IOException {
+        Path file = Files.createTempFile("pack", ".txt");
+        Files.write(file, contents.getBytes());
+        return file;
+    }
+
+    @Test
+    void testReadsOneValuePerLine() throws IOException {
+        assertArrayEquals(new int[] {1, 22, 333}, PackReader.readValues(packFile("1\n22\n333\n")));
+    }
+
+    @Test
+    void testLastLineWithoutNewline() throws IOException {
+        assertArrayEquals(new int[] {4, 5}, PackReader.readValues(packFile("4\n5")));
+    }
+
+    @Test
+    void testTrimsWhitespaceAndSign() throws IOException {
+        assertArrayEquals(new int[] {7, -2, 3}, PackReader.readValues(packFile("  7 \r\n-2\n\t+3\t\n")));
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        assertEquals(0, PackReader.readValues(packFile("")).length);
+    }
+
+    @Test
+    void testRejectsBlankLine() throws IOException {
+        Path file = packFile("1\n\n2\n");
+        assertThrows(NumberFormatException.class, () -> PackReader.readValues(file));
+    }
+
+    @Test
+    void testRejectsNonNumber() throws IOException {
+        Path file = packFile("1\n2 3\n");
+        assertThrows(NumberFormatException.class, () -> PackReader.readValues(file));
+        Path letters = packFile("1\nten\n");
+        assertThrows(NumberFormatException.class, () -> PackReader.readValues(letters));
+    }
+
+    @Test
+    void testReadsPastBufferBoundary() throws IOException {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            contents.append(i).append('\n');
+        }
+        int[] values = PackReader.readValues(packFile(contents.toString()));
+        assertEquals(100_000, values.length);
+        assertEquals(99_999, values[99_999]);
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * The PackReport class describes the outcome of checking a pack against the rules of a valid pack:
+ * exactly 8n cards, every value between 1 and 2n, and each value appearing exactly four times.
+ * An invalid pack is described by the first rule it breaks.
+ */
+public class PackReport {
+    /**
+     * The rule a pack breaks.
+     */
+    public enum Violation {
+        /**
+         * The pack breaks no rule.
+         */
+        NONE,
+
+        /**
+         * A card has a value outside 1 to 2n.
+         */
+        OUT_OF_RANGE,
+
+        /**
+         * A value appears more than four times.
+         */
+        OVER_COUNTED,
+
+        /**
+         * A value appears fewer than four times, so the pack is short.
+         */
+        MISSING
+    }
+
+    /**
+     * The report for a pack that breaks no rule.
+     */
+    private static final PackReport VALID = new PackReport(Violation.NONE, 0, 0, 0);
+
+    /**
+     * The rule the pack breaks.
+     */
+    private final Violation violation;
+
+    /**
+     * The value that breaks the rule.
+     */
+    private final int value;
+
+    /**
+     * The line of the card that breaks the rule, starting from 1, or 0 if no single card does.
+     */
+    private final long line;
+
+    /**
+     * The number of times the value appears, for {@link Violation#MISSING}.
+     */
+    private final int count;
+
+    private PackReport(Violation violation, int value, long line, int count) {
+        this.violation = violation;
+        this.value = value;
+        this.line = line;
+        this.count = count;
+    }
+
+    /**
+     * Gets the report for a valid pack.
+     *
+     * @return the valid report
+     */
+    public static PackReport valid() {
+        return VALID;
+    }
+
+    /**
+     * Creates the report for a card whose value is out of range.
+     *
+     * @param value the value of the card
+     * @param line the line of the card, starting from 1
+     * @return the report
+     */
+    public static PackReport outOfRange(int value, long line) {
+        return new PackReport(Violation.OUT_OF_RANGE, value, line, 0);
+    }
+
+    /**
+     * Creates the report for a value that appears more than four times.
+     *
+     * @param value the value
+     * @param line the line of its fifth copy, starting from 1
+     * @return the report
+     */
+    public static PackReport overCounted(int value, long line) {
+        return new PackReport(Violation.OVER_COUNTED, value, line, 5);
+    }
+
+    /**
+     * Creates the report for a value that appears fewer than four times.
+     *
+     * @param value the value
+     * @param count the number of times it appears
+     * @return the report
+     */
+    public static PackReport missing(int value, int count) {
+        return new PackReport(Violation.MISSING, value, 0, count);
+    }
+
+    /**
+     * Checks whether the pack breaks no rule.
+     *
+     * @return {@code true} if the pack is valid
+     */
+    public boolean isValid() {
+        return violation == Violation.NONE;
+    }
+
+    /**
+     * Gets the rule the pack breaks.
+     *
+     * @return the violation, or {@link Violation#NONE}
+     */
+    public Violation getViolation() {
+        return violation;
+    }
+
+    /**
+     * Gets the value that breaks the rule.
+     *
+     * @return the offending value
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the line of the card that breaks the rule.
+     *
+     * @return the line, starting from 1, or 0 if no single card breaks it
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Gets the number of times the offending value appears.
+     *
+     * @return the count of the value
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        switch (violation) {
+            case OUT_OF_RANGE:
+                return "line " + line + " has " + value + ", which is out of range";
+            case OVER_COUNTED:
+                return "line " + line + " has a fifth " + value;
+            case MISSING:
+                return "value " + value + " appears " + count + " times instead of 4";
+            default:
+                return "valid pack";
+        }
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The PackValidator class checks a pack of face values against the rules of a valid pack in a
+ * single pass, stopping at the first card that breaks a rule.
+ * <p>
+ * Each card is range-checked and counted as it is seen, so an out-of-range value or a fifth copy is
+ * reported straight away with its line. If the pass finishes without a violation, every value
+ * appears at most four times, so the pack is valid exactly when it has 8n cards; a shorter pack is
+ * reported by the first value that is missing a copy.
+ * <p>
+ * Large packs are split into one fork/join chunk per worker. Each chunk counts into its own
+ * histogram and stops early once any chunk finds a violation; the histograms are merged on the way
+ * back up.
+ */
+public final class PackValidator {
+    /**
+     * Packs with fewer cards than this are always checked on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private PackValidator() {
+    }
+
+    /**
+     * Checks a pack, in parallel on the common pool if it is large.
+     *
+     * @param pack the face values of the pack, in order
+     * @param noOfPlayers the number of players the pack is for
+     * @return the report of the first rule the pack breaks, or the valid report
+     */
+    public static PackReport validate(int[] pack, int noOfPlayers) {
+        if (pack.length < PARALLEL_THRESHOLD) {
+            return validateSequential(pack, noOfPlayers);
+        }
+        return validate(pack, noOfPlayers, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Checks a pack on the calling thread.
+     *
+     * @param pack the face values of the pack, in order
+     * @param noOfPlayers the number of players the pack is for
+     * @return the report of the first rule the pack breaks, or the valid report
+     */
+    public static PackReport validateSequential(int[] pack, int noOfPlayers) {
+        int maxNumber = 2 * noOfPlayers;
+        // A longer pack must have a fifth copy somewhere in its first 8n + 1 cards
+        byte[] counts = new byte[maxNumber + 1];
+        for (int i = 0; i < pack.length; i++) {
+            int value = pack[i];
+            if (value < 1 || value > maxNumber) {
+                return PackReport.outOfRange(value, i + 1L);
+            }
+            if (++counts[value] > 4) {
+                return PackReport.overCounted(value, i + 1L);
+            }
+        }
+        return checkComplete(counts, pack.length, noOfPlayers);
+    }
+
+    /**
+     * Checks a pack by splitting it into chunks on the given pool.
+     * If a chunk finds a violation, the pack is scanned again up to that point so the report
+     * always names the first violation in pack order.
+     *
+     * @param pack the face values of the pack, in order
+     * @param noOfPlayers the number of players the pack is for
+     * @param pool the pool the chunks run on
+     * @return the report of the first rule the pack breaks, or the valid report
+     */
+    public static PackReport validate(int[] pack, int noOfPlayers, ForkJoinPool pool) {
+        // One chunk per worker, as each chunk allocates and merges a histogram the size of the value range
+        int chunkSize = Math.max(1 << 16, pack.length / pool.getParallelism() + 1);
+        AtomicBoolean failed = new AtomicBoolean();
+        byte[] counts = pool.invoke(new Chunk(pack, 2 * noOfPlayers, 0, pack.length, chunkSize, failed));
+        if (failed.get()) {
+            return validateSequential(pack, noOfPlayers);
+        }
+        return checkComplete(counts, pack.length, noOfPlayers);
+    }
+
+    /**
+     * Checks whether any face value appears at least four times among the given cards. A hand only
+     * wins with four equal cards, so a game dealt from cards without one can never be won.
+     *
+     * @param faceValues the face values of the cards in play
+     * @return {@code true} if some face value appears at least four times
+     */
+    public static boolean isWinnable(int[] faceValues) {
+        int[] sorted = faceValues.clone();
+        Arrays.sort(sorted);
+        for (int i = 3; i < sorted.length; i++) {
+            if (sorted[i - 3] == sorted[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finishes a check once every card has been counted without a violation.
+     *
+     * @param counts how many times each value appears, none more than four
+     * @param length the number of cards in the pack
+     * @param noOfPlayers the number of players the pack is for
+     * @return the valid report, or the report of the first value missing a copy
+     */
+    private static PackReport checkComplete(byte[] counts, int length, int noOfPlayers) {
+        if (length == 8 * noOfPlayers) {
+            return PackReport.valid();
+        }
+        for (int value = 1; value < counts.length; value++) {
+            if (counts[value] < 4) {
+                return PackReport.missing(value, counts[value]);
+            }
+        }
+        // Only reachable for packs with no players
+        return PackReport.missing(1, 0);
+    }
+
+    /**
+     * A range of the pack that is counted into its own histogram, split in half while it is large.
+     */
+    private static final class Chunk extends RecursiveTask<byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] pack;
+        private final int maxNumber;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final AtomicBoolean failed;
+
+        private Chunk(int[] pack, int maxNumber, int from, int to, int chunkSize, AtomicBoolean failed) {
+            this.pack = pack;
+            this.maxNumber = maxNumber;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.failed = failed;
+        }
+
+        @Override
+        protected byte[] compute() {
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                Chunk left = new Chunk(pack, maxNumber, from, middle, chunkSize, failed);
+                left.fork();
+                byte[] counts = new Chunk(pack, maxNumber, middle, to, chunkSize, failed).compute();
+                byte[] leftCounts = left.join();
+                if (failed.get()) {
+                    return counts;
+                }
+                for (int value = 1; value <= maxNumber; value++) {
+                    int merged = counts[value] + leftCounts[value];
+                    if (merged > 4) {
+                        failed.set(true);
+                        return counts;
+                    }
+                    counts[value] = (byte) merged;
+                }
+                return counts;
+            }
+            byte[] counts = new byte[maxNumber + 1];
+            for (int i = from; i < to; i++) {
+                int value = pack[i];
+                if (value < 1 || value > maxNumber || ++counts[value] > 4) {
+                    failed.set(true);
+                    return counts;
+                }
+                // Give up early once another chunk has already found a violation
+                if ((i & 0xfff) == 0 && failed.get()) {
+                    return counts;
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackValidatorTest {
+
+    private static final int[] VALID_PACK = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+
+    private static int[] largePack(int noOfPlayers) {
+        return TurnBasedEngine.faceValues(Tournament.generatePacks(1, noOfPlayers, 11).get(0));
+    }
+
+    @Test
+    void testValidPack() {
+        assertTrue(PackValidator.validate(VALID_PACK, 2).isValid());
+    }
+
+    @Test
+    void testReportsOutOfRangeWithLine() {
+        int[] pack = VALID_PACK.clone();
+        pack[5] = 9;
+        PackReport report = PackValidator.validate(pack, 2);
+        assertEquals(PackReport.Violation.OUT_OF_RANGE, report.getViolation());
+        assertEquals(9, report.getValue());
+        assertEquals(6, report.getLine());
+    }
+
+    @Test
+    void testReportsFifthCopyWithLine() {
+        int[] pack = VALID_PACK.clone();
+        pack[15] = 1;
+        PackReport report = PackValidator.validate(pack, 2);
+        assertEquals(PackReport.Violation.OVER_COUNTED, report.getViolation());
+        assertEquals(1, report.getValue());
+        assertEquals(16, report.getLine());
+    }
+
+    @Test
+    void testReportsMissingValueInShortPack() {
+        int[] pack = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4};
+        PackReport report = PackValidator.validate(pack, 2);
+        assertEquals(PackReport.Violation.MISSING, report.getViolation());
+        assertEquals(4, report.getValue());
+        assertEquals(3, report.getCount());
+    }
+
+    @Test
+    void testParallelMatchesSequentialOnValidPack() {
+        int[] pack = largePack(100_000);
+        assertTrue(PackValidator.validate(pack, 100_000, ForkJoinPool.commonPool()).isValid());
+    }
+
+    @Test
+    void testParallelReportsFirstViolation() {
+        int noOfPlayers = 100_000;
+        int[] pack = largePack(noOfPlayers);
+        pack[700_000] = 0;
+        pack[123_456] = 2 * noOfPlayers + 1;
+        PackReport parallel = PackValidator.validate(pack, noOfPlayers, ForkJoinPool.commonPool());
+        PackReport sequential = PackValidator.validateSequential(pack, noOfPlayers);
+        assertEquals(PackReport.Violation.OUT_OF_RANGE, parallel.getViolation());
+        assertEquals(123_457, parallel.getLine());
+        assertEquals(sequential.toString(), parallel.toString());
+    }
+
+    @Test
+    void testParallelReportsCopiesSplitAcrossChunks() {
+        int noOfPlayers = 100_000;
+        int[] pack = largePack(noOfPlayers);
+        // Each chunk sees at most four copies, so the fifth is only found when the counts merge
+        pack[pack.length - 1] = pack[0];
+        // One chunk per worker, so the pack is split however many cores this machine has
+        ForkJoinPool pool = new ForkJoinPool(4);
+        PackReport report;
+        try {
+            report = PackValidator.validate(pack, noOfPlayers, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(PackReport.Violation.OVER_COUNTED, report.getViolation());
+        assertEquals(pack[0], report.getValue());
+    }
+
+    @Test
+    void testWinnableNeedsFourOfAKind() {
+        assertTrue(PackValidator.isWinnable(new int[] {5, 1, 5, 2, 5, 3, 5}));
+        assertFalse(PackValidator.isWinnable(new int[] {5, 1, 5, 2, 5, 3, 1}));
+        assertFalse(PackValidator.isWinnable(new int[0]));
+    }
+}
@@ -1,8 +1,4 @@
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.io.*;
 
 /**
  * The Player class represents a player in a card game.
@@ -16,9 +12,9 @@ public class Player implements Runnable{
     private final int playerIndex;
 
     /**
-     * The hand of cards held by the player.
+     * The face values of the cards held by the player.
      */
-    private ArrayList<Card> hand;
+    private final Hand hand;
 
     /**
      * The left adjacent card deck.
@@ -31,19 +27,39 @@ public class Player implements Runnable{
     private final CardDeck rightDeck;
 
     /**
-     * A flag indicating whether the player has won the game.
+     * A flag indicating whether the player has won the game, only set if the player was the first to win.
      */
     private boolean hasWon;
 
     /**
-     * The name of the output file associated with the player.
+     * The sink that records the player's actions in the player's output file, created on its first write.
      */
-    private final String outputFile;
+    private final OutputSink sink;
+
+    /**
+     * Whether the draw, discard and current hand of every turn are logged.
+     */
+    private final boolean logTurns;
+
+    /**
+     * A copy of the hand made for each current hand line, reused so that logging a turn does not allocate.
+     */
+    private final int[] handCopy = new int[Hand.CAPACITY];
 
     /**
      * The CardGame instance associated with the player.
      */
-    private static CardGame cardGame;
+    private final CardGame cardGame;
+
+    /**
+     * The number of turns the player has taken.
+     */
+    private int turnsTaken;
+
+    /**
+     * Whether an empty draw has been counted for the turn the player is trying to take without waiting.
+     */
+    private boolean emptyDrawCounted;
 
     /**
      * Constructs a new player with the specified parameters.
@@ -57,17 +73,10 @@ public class Player implements Runnable{
         this.playerIndex = playerIndex;
         this.leftDeck = leftDeck;
         this.rightDeck = rightDeck;
-        this.hand = new ArrayList<>();
+        this.hand = new Hand(playerIndex);
         this.hasWon = false;
-        this.outputFile = "player"+ playerIndex + "_output.txt";
-        try{
-            File f = new File(this.outputFile);
-            f.createNewFile();
-            BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile));
-            writer.write("");
-        } catch (IOException e){
-            System.out.println("Failed to create an output file for player" + playerIndex);
-        }
+        this.sink = cardGame.getGameLog().playerSink(playerIndex);
+        this.logTurns = cardGame.getLogLevel().logsTurns();
         this.cardGame = cardGame;
     }
 
@@ -81,113 +90,132 @@ public class Player implements Runnable{
     }
 
 
+    /**
+     * Gets the number of turns the player has taken so far.
+     *
+     * @return the number of turns taken
+     */
+    public int getTurnsTaken() {
+        return turnsTaken;
+    }
+
     /**
      * Sets the initial hand of cards for the player.
      *
      * @param startHand the initial hand of cards
      */
-    public void setHand(ArrayList<Card> startHand) {
-        this.hand = startHand;
+    public synchronized void setHand(ArrayList<Card> startHand) {
+        hand.clear();
+        for (Card card : startHand) {
+            hand.add(card.faceValue());
+        }
     }
 
 
+    /**
+     * Sets the initial hand of the player from face values.
+     *
+     * @param faceValues the face values of the initial hand, in hand order
+     */
+    public synchronized void setHand(int[] faceValues) {
+        hand.clear();
+        for (int faceValue : faceValues) {
+            hand.add(faceValue);
+        }
+    }
+
     /**
      * Converts the player's hand to a string representation.
      *
      * @return a string containing the face values of the cards in the player's hand
      */
-    public String handAsString (){
-        String sHand = "";
-        for(Card card : hand){
-            sHand = sHand + card.faceValue() + " ";
-        }
-        return sHand;
+    public synchronized String handAsString (){
+        return hand.toString();
     }
 
     /**
-     * Logs an action to the player's output file.
+     * Converts the player's hand to an array of face values.
      *
-     * @param action the action to be logged
+     * @return the face values of the cards in the player's hand, in order
      */
-    private synchronized void logAction(String action) {
-        try (FileWriter writer = new FileWriter(outputFile, true)) {
-            writer.write(action + "\n");
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.out.println("IOException");
+    private synchronized int[] handAsValues() {
+        return hand.toArray();
+    }
+
+    /**
+     * Copies the face values of the player's hand into the reused hand copy.
+     *
+     * @return the number of cards in the player's hand
+     */
+    private synchronized int copyHand() {
+        int size = hand.size();
+        for (int i = 0; i < size; i++) {
+            handCopy[i] = hand.get(i);
         }
+        return size;
     }
 
     /**
-     * Writes the player's initial hand to the output file, using the logAction method.
+     * Writes the player's initial hand to the output file, using its sink.
      */
     public void writeInitialHand(){
-        String action = "player " + playerIndex + " initial hand " + handAsString();
-        logAction(action);
+        int[] cards = handAsValues();
+        sink.initialHand(playerIndex, cards, cards.length);
     }
 
     /**
-     * Writes the player's current hand to the output file, using the logAction method.
+     * Writes the player's current hand to the output file, using its sink.
      */
-    private synchronized void writeCurrentHand(){
-        String action = "player "+ playerIndex +" current hand is "+ handAsString();
-        logAction(action);
+    private void writeCurrentHand(){
+        sink.currentHand(turnsTaken + 1, playerIndex, handCopy, copyHand());
     }
 
     /**
-     * Writes the action of a player drawing a card from a deck to the output file, using the logAction method.
+     * Writes the action of a player drawing a card from a deck to the output file, using its sink.
      * @param card the face value of the drawn card
      * @param deck the index of the deck from which the card is drawn
      */
-    private synchronized void writeDraw(int card, int deck){
-        String action = "player "+ playerIndex +" draws a "+ card + " from deck " + deck;
-        logAction(action);
+    private void writeDraw(int card, int deck){
+        sink.draw(turnsTaken + 1, playerIndex, card, deck);
     }
 
     /**
-     * Writes the action of discarding a card to the output file, using the logAction method.
+     * Writes the action of discarding a card to the output file, using its sink.
      *
      * @param card the face value of the discarded card
      * @param deck the index of the deck to which the card is discarded
      */
-    private synchronized void writeDiscard(int card, int deck){
-        String action = "player "+ playerIndex +" discards a "+ card + " to deck " + deck;
-        logAction(action);
+    private void writeDiscard(int card, int deck){
+        sink.discard(turnsTaken + 1, playerIndex, card, deck);
     }
 
     /**
-     * Writes the final hand of the player to the output file, using the logAction method.
+     * Writes the final hand of the player to the output file, using its sink.
+     * Must only be called once the player has stopped.
      *
      * @param playerIndexOfWinner the index of the winning player
      */
-    public synchronized void writeFinalHand(int playerIndexOfWinner){
-        String action;
-        if (hasWon){
-            action = "player " + playerIndex + " wins\nplayer " + playerIndex + " exits\nplayer " + playerIndex + " final hand " + handAsString();
-        }
-        else {
-            action = "player " + playerIndexOfWinner + " has informed player " + playerIndex + " that player " + playerIndexOfWinner + " has won\nplayer " + playerIndex + " exits\nplayer " + playerIndex + " final hand " + handAsString();
-        }
-        logAction(action);
+    public void writeFinalHand(int playerIndexOfWinner){
+        int[] cards = handAsValues();
+        sink.finalHand(turnsTaken, playerIndex, hasWon ? playerIndex : playerIndexOfWinner, cards, cards.length);
+    }
+
+    /**
+     * Writes out everything the player has logged and closes the player's output file.
+     * Must only be called during the final stage of the game log.
+     */
+    public void finishOutput(){
+        cardGame.getGameLog().finishFile(sink);
     }
 
     /**
      * Simulates the player discarding a card from their hand.
+     * The first card that is not of the player's own value is discarded, keeping the order of the rest.
      *
      * @return the discarded card
      */
     public synchronized Card dropCard() {
-        int cardIndexToRemove = 0;
-        Card discardedCard = null;
-        for (Card card : hand) {
-            if (card.faceValue() != playerIndex) {
-                discardedCard = card;
-                break;
-            }
-            cardIndexToRemove++;
-        }
-        hand.remove(cardIndexToRemove);
-        return discardedCard;
+        return Card.of(hand.discard());
     }
 
     /**
@@ -196,7 +224,20 @@ public class Player implements Runnable{
      * @param card the card to be picked up
      */
     public synchronized void pickUpCard(Card card) {
-        hand.add(card);
+        hand.add(card.faceValue());
+    }
+
+    /**
+     * Records the time since a mark in a histogram.
+     *
+     * @param histogram the histogram to record in
+     * @param mark the time the measured step started, from {@link System#nanoTime()}
+     * @return the current time, to mark the start of the next step
+     */
+    private static long record(LatencyHistogram histogram, long mark) {
+        long now = System.nanoTime();
+        histogram.record(now - mark);
+        return now;
     }
 
     /**
@@ -205,50 +246,126 @@ public class Player implements Runnable{
      * @return {@code true} if the player has a winning hand, {@code false} otherwise
      */
     public synchronized boolean checkForWinningHand() {
-        Card firstCard = hand.get(0);
-        int firstValue = firstCard.faceValue();
-        for (int i = 1; i < hand.size(); i++) {
-            Card currentCard = hand.get(i);
-            if (currentCard.faceValue() != firstValue) {
-                // If any value is different, return false
-                return false;
-            }
-        }
-        return true;
+        return hand.isWinning();
     }
 
 
 
     @Override
     public void run() {
+        // Read once, as metrics cannot be turned on once the game is running
+        GameMetrics metrics = cardGame.getMetrics();
+        long turnBudget = cardGame.getTurnBudget();
+        long mark = 0;
         // Loops until a player has won
         while (cardGame.isGameInProgress()) {
-            // Simulate drawing a card from the left deck
+            if (turnsTaken >= turnBudget) {
+                // This player has used up their turns without winning, so the game is given up
+                cardGame.abandonGame();
+                break;
+            }
+            if (metrics != null) {
+                if (leftDeck.size() == 0) {
+                    metrics.emptyDraw(leftDeck.getDeckIndex());
+                }
+                mark = System.nanoTime();
+            }
+            // Simulate drawing a card from the left deck, waiting while it is empty
             Card drawnCard = leftDeck.takeCard();
-            writeDraw(drawnCard.faceValue(), leftDeck.getDeckIndex());
-            pickUpCard(drawnCard);
-
-            // Simulate discarding a card to the right deck
-            Card discardedCard = dropCard();
-            rightDeck.addCard(discardedCard);
-            writeDiscard(discardedCard.faceValue(), rightDeck.getDeckIndex());
-
-            writeCurrentHand();
-
-            // Check for a winning hand
-            if (checkForWinningHand()) {
-                hasWon = true;
-                cardGame.stopGame(playerIndex);
+            if (metrics != null) {
+                mark = record(metrics.takeCard(), mark);
+            }
+            if (drawnCard == null) {
+                // The deck was closed because the game has been won, or the player was interrupted
                 break;
             }
+            if (finishTurn(drawnCard, metrics, mark)) {
+                break;
+            }
+        }
+    }
 
+    /**
+     * Takes a turn if it can be taken straight away, without waiting: the game is in progress, the
+     * player has turns left, their left deck has a card and their right deck has room for the discard.
+     * Used by a thread that runs the turns of several players in turn, such as a {@link RingSegment}.
+     *
+     * @return {@code true} if a turn was taken
+     */
+    public boolean tryTakeTurn() {
+        if (!cardGame.isGameInProgress()) {
+            return false;
+        }
+        if (turnsTaken >= cardGame.getTurnBudget()) {
+            cardGame.abandonGame();
+            return false;
         }
+        // Checked before drawing so the discard never has to wait; only this player fills the right deck
+        if (!rightDeck.hasRoom()) {
+            return false;
+        }
+        GameMetrics metrics = cardGame.getMetrics();
+        long mark = metrics != null ? System.nanoTime() : 0;
+        Card drawnCard = leftDeck.pollCard();
+        if (drawnCard == null) {
+            // Counted once per turn, however often the deck is polled, like the wait of a blocking draw
+            if (metrics != null && !emptyDrawCounted) {
+                metrics.emptyDraw(leftDeck.getDeckIndex());
+                emptyDrawCounted = true;
+            }
+            return false;
+        }
+        emptyDrawCounted = false;
+        if (metrics != null) {
+            mark = record(metrics.takeCard(), mark);
+        }
+        finishTurn(drawnCard, metrics, mark);
+        return true;
     }
 
+    /**
+     * Finishes a turn once a card has been drawn: discards to the right deck, logs the turn and
+     * checks for a winning hand, ending the game if this player is the first to win.
+     *
+     * @param drawnCard the card drawn from the left deck
+     * @param metrics the metrics of the game, or {@code null} if they are not enabled
+     * @param mark the time the card was drawn, if metrics are enabled
+     * @return {@code true} if the player has a winning hand and so stops playing
+     */
+    private boolean finishTurn(Card drawnCard, GameMetrics metrics, long mark) {
+        pickUpCard(drawnCard);
 
+        // Simulate discarding a card to the right deck
+        Card discardedCard = dropCard();
+        if (metrics != null) {
+            mark = System.nanoTime();
+        }
+        rightDeck.addCard(discardedCard);
+        if (metrics != null) {
+            mark = record(metrics.addCard(), mark);
+            metrics.deckDepth(rightDeck.getDeckIndex(), rightDeck.size());
+        }
 
+        if (logTurns) {
+            writeDraw(drawnCard.faceValue(), leftDeck.getDeckIndex());
+            writeDiscard(discardedCard.faceValue(), rightDeck.getDeckIndex());
+            writeCurrentHand();
+            if (metrics != null) {
+                mark = record(metrics.log(), mark);
+            }
+        }
+        turnsTaken++;
 
+        // Check for a winning hand
+        boolean won = checkForWinningHand();
+        if (metrics != null) {
+            record(metrics.winCheck(), mark);
+            metrics.turnTaken(playerIndex);
+        }
+        if (won) {
+            // Another player may have won first, in which case this player just stops
+            hasWon = cardGame.stopGame(playerIndex);
+        }
+        return won;
+    }
 }
-
-
-
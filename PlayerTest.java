@@ -1,14 +1,12 @@
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.junit.Assert.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.assertFalse;
 
 
 
@@ -79,4 +77,28 @@ class PlayerTest {
         assertEquals(true, player.checkForWinningHand());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testTryTakeTurnNeedsCardAndRoom() throws IOException {
+        int[] pack = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        CardGame cardGame = new CardGame(DealtPack.of(pack, 2), Files.createTempDirectory("cardgame"),
+                LogFormat.TEXT, LogLevel.NONE);
+        CardDeck leftDeck = new CardDeck(1);
+        CardDeck rightDeck = new CardDeck(2, 1);
+        Player player = new Player(1, leftDeck, rightDeck, cardGame);
+        player.setHand(new int[] {1, 1, 2, 3});
+        // Nothing to draw
+        assertFalse(player.tryTakeTurn());
+
+        rightDeck.addCard(new Card(9));
+        leftDeck.addCard(new Card(1));
+        // Nowhere to discard
+        assertFalse(player.tryTakeTurn());
+        assertEquals(1, leftDeck.size());
+
+        rightDeck.pollCard();
+        assertTrue(player.tryTakeTurn());
+        assertEquals(1, player.getTurnsTaken());
+        assertEquals("1 1 3 1 ", player.handAsString());
+        assertEquals(2, rightDeck.pollCard().faceValue());
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The RingSegment class runs a contiguous stretch of the ring of players on a single thread.
+ * The players of the segment take their turns one after another, each using
+ * {@link Player#tryTakeTurn()} so nobody blocks the thread. The decks between two players of the
+ * same segment are only touched by this thread and are marked local, so handing a card on is a
+ * plain queue operation. Only the two boundary decks, shared with the neighbouring segments, are
+ * used by two threads.
+ * <p>
+ * A segment can only be stuck if its first player's left deck is empty or its last player's right
+ * deck is full, as nothing else outside the thread can change. When a whole pass takes no turn, the
+ * thread registers with both boundary decks, tries once more and parks until a neighbour adds or
+ * takes a card there, or the game ends and the decks are closed.
+ */
+public class RingSegment implements Runnable {
+    /**
+     * The players of the segment, in ring order.
+     */
+    private final List<Player> players;
+
+    /**
+     * The deck the first player of the segment draws from, filled by the previous segment.
+     */
+    private final CardDeck firstDeck;
+
+    /**
+     * The deck the last player of the segment discards to, drawn from by the next segment.
+     */
+    private final CardDeck lastDeck;
+
+    /**
+     * The game the players belong to.
+     */
+    private final CardGame cardGame;
+
+    /**
+     * Constructs a segment of the ring.
+     *
+     * @param players the players of the segment, in ring order
+     * @param firstDeck the left deck of the first player
+     * @param lastDeck the right deck of the last player
+     * @param cardGame the game the players belong to
+     */
+    public RingSegment(List<Player> players, CardDeck firstDeck, CardDeck lastDeck, CardGame cardGame) {
+        this.players = players;
+        this.firstDeck = firstDeck;
+        this.lastDeck = lastDeck;
+        this.cardGame = cardGame;
+    }
+
+    /**
+     * Gives every player of the segment a turn in order, for as long as the game is in progress.
+     */
+    @Override
+    public void run() {
+        Thread thread = Thread.currentThread();
+        while (cardGame.isGameInProgress() && !thread.isInterrupted()) {
+            if (takeTurns()) {
+                continue;
+            }
+            firstDeck.watchForCards(thread);
+            lastDeck.watchForRoom(thread);
+            try {
+                // A neighbour may have moved a card just before the registration was seen
+                if (!takeTurns() && cardGame.isGameInProgress()) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                firstDeck.watchForCards(null);
+                lastDeck.watchForRoom(null);
+            }
+        }
+    }
+
+    /**
+     * Lets each player of the segment try to take one turn.
+     *
+     * @return {@code true} if any player took a turn
+     */
+    private boolean takeTurns() {
+        boolean progress = false;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).tryTakeTurn()) {
+                progress = true;
+            }
+        }
+        return progress;
+    }
+}
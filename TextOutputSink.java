@@ -0,0 +1,188 @@
+/**
+ * The TextOutputSink class renders a player's actions as the lines of the player's text output file.
+ * Face values and indexes are encoded digit by digit and the fixed words of each line are copied
+ * from pre-encoded constants, so no String is built for a line.
+ */
+public class TextOutputSink extends OutputSink {
+    /**
+     * The most bytes a single call writes, with room for every index at its widest.
+     */
+    private static final int MAX_WRITE = 512;
+
+    private static final byte[] PLAYER = ascii("player ");
+    private static final byte[] INITIAL_HAND = ascii(" initial hand ");
+    private static final byte[] DRAWS_A = ascii(" draws a ");
+    private static final byte[] FROM_DECK = ascii(" from deck ");
+    private static final byte[] DISCARDS_A = ascii(" discards a ");
+    private static final byte[] TO_DECK = ascii(" to deck ");
+    private static final byte[] CURRENT_HAND_IS = ascii(" current hand is ");
+    private static final byte[] WINS = ascii(" wins\n");
+    private static final byte[] HAS_INFORMED_PLAYER = ascii(" has informed player ");
+    private static final byte[] THAT_PLAYER = ascii(" that player ");
+    private static final byte[] HAS_WON = ascii(" has won\n");
+    private static final byte[] EXITS = ascii(" exits\n");
+    private static final byte[] FINAL_HAND = ascii(" final hand ");
+
+    /**
+     * Constructs a sink for a player's text output file.
+     *
+     * @param gameLog the log the chunks are handed to
+     * @param fileName the name of the output file
+     */
+    TextOutputSink(GameLog gameLog, String fileName) {
+        super(gameLog, fileName);
+    }
+
+    @Override
+    public void initialHand(int player, int[] cards, int size) {
+        lock.lock();
+        try {
+            reserve(MAX_WRITE);
+            put(PLAYER);
+            putInt(player);
+            put(INITIAL_HAND);
+            putCards(cards, size);
+            chunk[length++] = '\n';
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void draw(int turn, int player, int card, int deck) {
+        lock.lock();
+        try {
+            reserve(MAX_WRITE);
+            put(PLAYER);
+            putInt(player);
+            put(DRAWS_A);
+            putInt(card);
+            put(FROM_DECK);
+            putInt(deck);
+            chunk[length++] = '\n';
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void discard(int turn, int player, int card, int deck) {
+        lock.lock();
+        try {
+            reserve(MAX_WRITE);
+            put(PLAYER);
+            putInt(player);
+            put(DISCARDS_A);
+            putInt(card);
+            put(TO_DECK);
+            putInt(deck);
+            chunk[length++] = '\n';
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void currentHand(int turn, int player, int[] cards, int size) {
+        lock.lock();
+        try {
+            reserve(MAX_WRITE);
+            put(PLAYER);
+            putInt(player);
+            put(CURRENT_HAND_IS);
+            putCards(cards, size);
+            chunk[length++] = '\n';
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void finalHand(int turn, int player, int winner, int[] cards, int size) {
+        lock.lock();
+        try {
+            reserve(MAX_WRITE);
+            put(PLAYER);
+            if (player == winner) {
+                putInt(player);
+                put(WINS);
+            } else {
+                putInt(winner);
+                put(HAS_INFORMED_PLAYER);
+                putInt(player);
+                put(THAT_PLAYER);
+                putInt(winner);
+                put(HAS_WON);
+            }
+            put(PLAYER);
+            putInt(player);
+            put(EXITS);
+            put(PLAYER);
+            putInt(player);
+            put(FINAL_HAND);
+            putCards(cards, size);
+            chunk[length++] = '\n';
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encodes face values into the chunk, each followed by a space.
+     *
+     * @param cards the face values
+     * @param size the number of face values, at most {@link Hand#CAPACITY}
+     */
+    private void putCards(int[] cards, int size) {
+        for (int i = 0; i < size; i++) {
+            putInt(cards[i]);
+            chunk[length++] = ' ';
+        }
+    }
+
+    /**
+     * Copies pre-encoded text into the chunk.
+     *
+     * @param text the encoded text
+     */
+    private void put(byte[] text) {
+        System.arraycopy(text, 0, chunk, length, text.length);
+        length += text.length;
+    }
+
+    /**
+     * Encodes an integer in decimal into the chunk, as {@link Integer#toString(int)} would.
+     *
+     * @param value the integer to encode
+     */
+    private void putInt(int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            chunk[length++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long bound = 10; bound <= remaining; bound *= 10) {
+            digits++;
+        }
+        length += digits;
+        for (int i = length - 1; i >= length - digits; i--) {
+            chunk[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    /**
+     * Encodes a constant made of ASCII characters.
+     *
+     * @param text the constant
+     * @return its bytes
+     */
+    private static byte[] ascii(String text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return bytes;
+    }
+}
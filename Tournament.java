@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The Tournament class plays a batch of card games, one per pack, to collect win statistics.
+ * The games are scheduled on a work-stealing {@link ForkJoinPool} sized to the available cores,
+ * and each game writes its output files to its own directory under the tournament's directory.
+ * Games can also be played by the single-threaded {@link TurnBasedEngine}, which writes no files,
+ * or in batches by the {@link LockstepEngine}, which plays many games at once with vector instructions.
+ */
+public class Tournament {
+    /**
+     * The engine each game of the tournament is played with.
+     */
+    public enum Engine {
+        /**
+         * A {@link CardGame} with one thread per player, writing the usual output files.
+         */
+        THREADED,
+
+        /**
+         * A {@link TurnBasedEngine} stepping the players round-robin on the pool's own thread.
+         */
+        TURN_BASED,
+
+        /**
+         * A {@link LockstepEngine} playing a batch of games round-robin on the pool's own thread.
+         */
+        LOCKSTEP
+    }
+
+    /**
+     * The number of games each batch of a lockstep tournament plays.
+     */
+    private static final int LOCKSTEP_BATCH = 4096;
+
+    /**
+     * Number of players in every game of the tournament.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The directory under which each game gets its own output directory.
+     */
+    private final Path outputDirectory;
+
+    /**
+     * Number of games played at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * The engine each game is played with.
+     */
+    private final Engine engine;
+
+    /**
+     * How much of each threaded game is written to its output files.
+     */
+    private final LogLevel logLevel;
+
+    /**
+     * Constructs a tournament that plays as many games at once as there are available cores.
+     *
+     * @param noOfPlayers the number of players in every game
+     * @param outputDirectory the directory under which each game writes its output files
+     */
+    public Tournament(int noOfPlayers, Path outputDirectory) {
+        this(noOfPlayers, outputDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a tournament that plays up to the given number of games at once.
+     *
+     * @param noOfPlayers the number of players in every game
+     * @param outputDirectory the directory under which each game writes its output files
+     * @param parallelism the number of games played at the same time
+     */
+    public Tournament(int noOfPlayers, Path outputDirectory, int parallelism) {
+        this(noOfPlayers, outputDirectory, parallelism, Engine.THREADED);
+    }
+
+    /**
+     * Constructs a tournament that plays up to the given number of games at once with the given engine.
+     *
+     * @param noOfPlayers the number of players in every game
+     * @param outputDirectory the directory under which each game writes its output files
+     * @param parallelism the number of games played at the same time
+     * @param engine the engine each game is played with
+     */
+    public Tournament(int noOfPlayers, Path outputDirectory, int parallelism, Engine engine) {
+        this(noOfPlayers, outputDirectory, parallelism, engine, LogLevel.FULL);
+    }
+
+    /**
+     * Constructs a tournament that plays up to the given number of games at once with the given engine,
+     * writing as much of each threaded game as the log level asks for.
+     *
+     * @param noOfPlayers the number of players in every game
+     * @param outputDirectory the directory under which each game writes its output files
+     * @param parallelism the number of games played at the same time
+     * @param engine the engine each game is played with
+     * @param logLevel how much of each threaded game is written to its output files
+     */
+    public Tournament(int noOfPlayers, Path outputDirectory, int parallelism, Engine engine, LogLevel logLevel) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.noOfPlayers = noOfPlayers;
+        this.outputDirectory = outputDirectory;
+        this.parallelism = parallelism;
+        this.engine = engine;
+        this.logLevel = logLevel;
+    }
+
+    /**
+     * Main method to run a tournament from the command line.
+     * Usage: {@code Tournament <players> <games> [seed]} to play freshly shuffled packs, or
+     * {@code Tournament <players> --packs=<directory>} to play every pack file in a directory.
+     * Adding {@code --engine=turn-based} plays the games on the single-threaded engine,
+     * {@code --engine=lockstep} plays them in batches on the vectorised engine, which needs the JVM
+     * option {@code --add-modules jdk.incubator.vector}, and {@code --verbosity=summary} or
+     * {@code --verbosity=none} cuts down the output of threaded games.
+     */
+    public static void main(String[] args) {
+        Engine engine = Engine.THREADED;
+        LogLevel logLevel = LogLevel.fromArgs(args);
+        ArrayList<String> arguments = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                engine = Engine.valueOf(arg.substring("--engine=".length()).replace('-', '_').toUpperCase());
+            } else if (!arg.startsWith(LogLevel.OPTION)) {
+                arguments.add(arg);
+            }
+        }
+        args = arguments.toArray(new String[0]);
+        if (args.length < 2) {
+            System.out.println("Usage: Tournament <players> <games> [seed] | Tournament <players> --packs=<directory>"
+                    + " [--engine=threaded|turn-based|lockstep] [--verbosity=full|summary|none]");
+            return;
+        }
+        int noOfPlayers = Integer.parseInt(args[0]);
+        Tournament tournament = new Tournament(noOfPlayers, Paths.get("tournament"),
+                Runtime.getRuntime().availableProcessors(), engine, logLevel);
+        TournamentResult result;
+        if (args[1].startsWith("--packs=")) {
+            result = tournament.run(readPacks(Paths.get(args[1].substring("--packs=".length())), noOfPlayers));
+        } else {
+            int games = Integer.parseInt(args[1]);
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+            result = tournament.run(new PackGenerator(noOfPlayers, seed), games);
+        }
+        System.out.println(result.summary());
+    }
+
+    /**
+     * Plays one game for each pack and aggregates the results.
+     *
+     * @param packs the packs to play, each dealt to a new game
+     * @return the aggregated results of every game
+     */
+    public TournamentResult run(List<? extends List<Card>> packs) {
+        return run(game -> TurnBasedEngine.faceValues(packs.get(game)), packs.size());
+    }
+
+    /**
+     * Plays the given number of games on packs made by a generator, generating each pack in
+     * memory on the worker that plays it, so no pack is built before its game starts.
+     *
+     * @param generator the generator of the packs; game k is played on its pack k
+     * @param games the number of games to play
+     * @return the aggregated results of every game
+     */
+    public TournamentResult run(PackGenerator generator, int games) {
+        if (generator.getNoOfPlayers() != noOfPlayers) {
+            throw new IllegalArgumentException("The packs are for " + generator.getNoOfPlayers()
+                    + " players but the tournament has " + noOfPlayers);
+        }
+        return run(generator::pack, games);
+    }
+
+    /**
+     * Plays the given number of games, looking up the pack of each game as it starts.
+     *
+     * @param packs the face values of the pack of each game
+     * @param games the number of games to play
+     * @return the aggregated results of every game
+     */
+    private TournamentResult run(IntFunction<int[]> packs, int games) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        // Players block on empty decks, so they run on their own threads rather than the pool's
+        ExecutorService playerExecutor = Executors.newCachedThreadPool();
+        long startTime = System.nanoTime();
+        try {
+            GameResult[] results = new GameResult[games];
+            pool.invoke(new GameRange(packs, results, playerExecutor, 0, games));
+            return new TournamentResult(noOfPlayers, results, System.nanoTime() - startTime);
+        } finally {
+            pool.shutdown();
+            playerExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Generates shuffled valid packs with a {@link PackGenerator}, as lists of cards.
+     *
+     * @param count the number of packs to generate
+     * @param noOfPlayers the number of players each pack is for
+     * @param seed the seed of the shuffles, so the same packs can be generated again
+     * @return the generated packs
+     */
+    public static List<ArrayList<Card>> generatePacks(int count, int noOfPlayers, long seed) {
+        PackGenerator generator = new PackGenerator(noOfPlayers, seed);
+        List<ArrayList<Card>> packs = new ArrayList<>(count);
+        int[] values = new int[8 * noOfPlayers];
+        for (int i = 0; i < count; i++) {
+            generator.pack(i, values);
+            ArrayList<Card> pack = new ArrayList<>(values.length);
+            for (int value : values) {
+                pack.add(Card.of(value));
+            }
+            packs.add(pack);
+        }
+        return packs;
+    }
+
+    /**
+     * Reads every regular file in a directory as a pack, in file name order.
+     *
+     * @param directory the directory containing the pack files
+     * @param noOfPlayers the number of players each pack is for
+     * @return the packs read from the directory
+     */
+    public static List<ArrayList<Card>> readPacks(Path directory, int noOfPlayers) {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> packFiles = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            List<ArrayList<Card>> packs = new ArrayList<>(packFiles.size());
+            for (Path packFile : packFiles) {
+                packs.add(CardGame.readPackFromFile(packFile.toString(), noOfPlayers));
+            }
+            return packs;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A range of games that is split in half until it holds a single game, or a single batch for
+     * the lockstep engine, so idle workers can steal the other halves.
+     */
+    private final class GameRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntFunction<int[]> packs;
+        private final GameResult[] results;
+        private final ExecutorService playerExecutor;
+        private final int from;
+        private final int to;
+
+        private GameRange(IntFunction<int[]> packs, GameResult[] results, ExecutorService playerExecutor,
+                          int from, int to) {
+            this.packs = packs;
+            this.results = results;
+            this.playerExecutor = playerExecutor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (engine == Engine.LOCKSTEP && to - from <= LOCKSTEP_BATCH) {
+                ArrayList<int[]> batch = new ArrayList<>(to - from);
+                for (int game = from; game < to; game++) {
+                    batch.add(packs.apply(game));
+                }
+                GameResult[] batchResults = new LockstepEngine(batch, noOfPlayers).run();
+                System.arraycopy(batchResults, 0, results, from, batchResults.length);
+                return;
+            }
+            if (to - from <= 1) {
+                if (from == to) {
+                    return;
+                }
+                int[] pack = packs.apply(from);
+                if (engine == Engine.TURN_BASED) {
+                    results[from] = new TurnBasedEngine(pack, noOfPlayers).run();
+                } else {
+                    CardGame game = new CardGame(DealtPack.of(pack, noOfPlayers), outputDirectory.resolve("game" + from),
+                            LogFormat.TEXT, logLevel);
+                    results[from] = game.run(playerExecutor);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            GameRange left = new GameRange(packs, results, playerExecutor, from, middle);
+            left.fork();
+            new GameRange(packs, results, playerExecutor, middle, to).compute();
+            left.join();
+        }
+    }
+}
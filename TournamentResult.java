@@ -0,0 +1,130 @@
+/**
+ * The TournamentResult class aggregates the results of every game played in a tournament.
+ */
+public class TournamentResult {
+    /**
+     * Number of players in every game.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The result of each game, in pack order.
+     */
+    private final GameResult[] gameResults;
+
+    /**
+     * The number of wins of each player, indexed by player index; index 0 counts games without a winner.
+     */
+    private final long[] winCounts;
+
+    /**
+     * The total number of turns taken across all games.
+     */
+    private final long totalTurns;
+
+    /**
+     * The wall-clock time the whole tournament took, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a new result from the results of the individual games.
+     *
+     * @param noOfPlayers the number of players in every game
+     * @param gameResults the result of each game, in pack order
+     * @param elapsedNanos the wall-clock time the whole tournament took, in nanoseconds
+     */
+    public TournamentResult(int noOfPlayers, GameResult[] gameResults, long elapsedNanos) {
+        this.noOfPlayers = noOfPlayers;
+        this.gameResults = gameResults.clone();
+        this.elapsedNanos = elapsedNanos;
+        this.winCounts = new long[noOfPlayers + 1];
+        long turns = 0;
+        for (GameResult result : gameResults) {
+            winCounts[result.getWinnerIndex()]++;
+            turns += result.getTotalTurns();
+        }
+        this.totalTurns = turns;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return the number of games
+     */
+    public int getGamesPlayed() {
+        return gameResults.length;
+    }
+
+    /**
+     * Gets the result of a single game.
+     *
+     * @param game the position of the game's pack in the tournament
+     * @return the result of that game
+     */
+    public GameResult getGameResult(int game) {
+        return gameResults[game];
+    }
+
+    /**
+     * Gets the number of games won by a player.
+     *
+     * @param playerIndex the index of the player, or 0 for games without a winner
+     * @return the number of games won
+     */
+    public long getWins(int playerIndex) {
+        return winCounts[playerIndex];
+    }
+
+    /**
+     * Gets the total number of turns taken across all games.
+     *
+     * @return the total number of turns
+     */
+    public long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Gets the wall-clock time the whole tournament took.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the throughput of the tournament.
+     *
+     * @return the number of games completed per second of wall-clock time
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : gameResults.length * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Builds a human-readable summary of the tournament.
+     *
+     * @return the summary text
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("games played: ").append(gameResults.length).append('\n');
+        for (int i = 1; i <= noOfPlayers; i++) {
+            summary.append("player ").append(i).append(" wins: ").append(winCounts[i]).append('\n');
+        }
+        summary.append("no winner: ").append(winCounts[0]).append('\n');
+        long gameNanos = 0;
+        for (GameResult result : gameResults) {
+            gameNanos += result.getElapsedNanos();
+        }
+        if (gameResults.length > 0) {
+            summary.append("mean turns per game: ").append(totalTurns / gameResults.length).append('\n');
+            summary.append("mean wall time per game (ms): ")
+                    .append(String.format("%.3f", gameNanos / 1e6 / gameResults.length)).append('\n');
+        }
+        summary.append("throughput (games/s): ").append(String.format("%.1f", gamesPerSecond()));
+        return summary.toString();
+    }
+}
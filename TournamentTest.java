@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    void testGeneratePacksAreValid() {
+        List<ArrayList<Card>> packs = Tournament.generatePacks(5, 3, 42);
+        assertEquals(5, packs.size());
+        for (ArrayList<Card> pack : packs) {
+            assertTrue(CardGame.validateInputPack(pack, 3));
+        }
+    }
+
+    @Test
+    void testRunAggregatesWinners() throws IOException {
+        // Player 1 always wins this pack on its first turn
+        int[] values = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+        List<ArrayList<Card>> packs = new ArrayList<>();
+        for (int game = 0; game < 6; game++) {
+            ArrayList<Card> pack = new ArrayList<>();
+            for (int value : values) {
+                pack.add(new Card(value));
+            }
+            packs.add(pack);
+        }
+        Tournament tournament = new Tournament(2, Files.createTempDirectory("tournament"), 2);
+
+        TournamentResult result = tournament.run(packs);
+
+        assertEquals(6, result.getGamesPlayed());
+        assertEquals(6, result.getWins(1));
+        assertEquals(0, result.getWins(2));
+        assertEquals(1, result.getGameResult(5).getWinnerIndex());
+        assertTrue(result.gamesPerSecond() > 0);
+    }
+
+    @Test
+    void testLockstepEngineMatchesTurnBased() throws IOException {
+        PackGenerator generator = new PackGenerator(5, 8);
+        TournamentResult lockstep = new Tournament(5, Files.createTempDirectory("tournament"), 2,
+                Tournament.Engine.LOCKSTEP).run(generator, 100);
+        TournamentResult turnBased = new Tournament(5, Files.createTempDirectory("tournament"), 2,
+                Tournament.Engine.TURN_BASED).run(generator, 100);
+        assertEquals(100, lockstep.getGamesPlayed());
+        for (int k = 0; k < 100; k++) {
+            assertEquals(turnBased.getGameResult(k).getWinnerIndex(), lockstep.getGameResult(k).getWinnerIndex());
+            assertEquals(turnBased.getGameResult(k).getTotalTurns(), lockstep.getGameResult(k).getTotalTurns());
+        }
+    }
+}
@@ -0,0 +1,591 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The TurnBasedEngine class plays a card game on a single thread, one turn at a time.
+ * It uses the same deck ring as {@link CardGame} (player i draws from deck i and discards to deck i + 1)
+ * and the same strategy as {@link Player} (keep cards of your own value, discard the first other card),
+ * but holds the whole game in primitive arrays so bulk simulations run without threads, locks or output files.
+ * <p>
+ * Players either take turns round-robin, or in an order drawn from a seeded random generator to mimic
+ * the interleavings of the threaded game. Either way a run is fully reproducible, and the order in which
+ * players took their turns can be recorded and replayed.
+ * <p>
+ * A round-robin game is a deterministic function of its state at the start of each round, so once that
+ * state repeats the game can never be won. While cycle detection is on, the engine keeps a hash of every
+ * hand and deck up to date as turns are taken and compares it, once per round, with a saved state using
+ * Brent's algorithm; a matching hash is confirmed against the saved cards before the game is abandoned.
+ * A pack with no face value four times is abandoned before the first turn.
+ */
+public class TurnBasedEngine {
+    /**
+     * The default maximum number of turns before a game is abandoned without a winner.
+     */
+    public static final long DEFAULT_MAX_TURNS = 10_000_000L;
+
+    /**
+     * The order in which players take their turns.
+     */
+    public enum Schedule {
+        /**
+         * Players take turns in index order, skipping any whose left deck is empty.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The next player is picked at random from those whose left deck is not empty.
+         */
+        RANDOM
+    }
+
+    /**
+     * Marks the end of a deck's linked list of cards.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The odd multiplier of the polynomial deck hashes, so each card's position in its deck counts.
+     */
+    private static final long POSITION_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The inverse of {@link #POSITION_MULTIPLIER} modulo 2^64, which shifts a deck hash up by one card.
+     */
+    private static final long POSITION_INVERSE = inverse(POSITION_MULTIPLIER);
+
+    /**
+     * Added to the keys of deck cards so they never share a key with a card in a hand.
+     */
+    private static final long DECK_SALT = 0x5DEECE66DL << 40;
+
+    /**
+     * Number of players in the game.
+     */
+    private final int noOfPlayers;
+
+    /**
+     * The face value of each card, indexed by the card's position in the pack.
+     */
+    private final int[] values;
+
+    /**
+     * The four cards in each player's hand, in hand order; player p's hand starts at 4p.
+     */
+    private final int[] hands;
+
+    /**
+     * The next card below each card in the same deck, or {@link #NONE} for the bottom card.
+     */
+    private final int[] next;
+
+    /**
+     * The top card of each deck, or {@link #NONE} if the deck is empty.
+     */
+    private final int[] deckHead;
+
+    /**
+     * The bottom card of each deck, or {@link #NONE} if the deck is empty.
+     */
+    private final int[] deckTail;
+
+    /**
+     * Whether the order of turns of the next run should be recorded.
+     */
+    private boolean recording;
+
+    /**
+     * The players, by index, in the order they took their turns during the last recorded run.
+     */
+    private int[] schedule = new int[0];
+
+    /**
+     * The number of turns recorded in {@link #schedule}.
+     */
+    private int scheduleLength;
+
+    /**
+     * Whether a card of some face value appears four times, without which nobody can win.
+     */
+    private final boolean winnable;
+
+    /**
+     * Whether round-robin runs look for a repeated state.
+     */
+    private boolean detectingCycles = true;
+
+    /**
+     * Whether the state hashes are being kept up to date during the current run.
+     */
+    private boolean hashing;
+
+    /**
+     * The hash of each player's hand, a sum of one key per card and position in hand.
+     */
+    private final long[] handHash;
+
+    /**
+     * The hash of each deck, a sum of one key per card weighted by a power of the multiplier for its depth.
+     */
+    private final long[] deckHash;
+
+    /**
+     * The weight of the next card added to the bottom of each deck.
+     */
+    private final long[] deckWeight;
+
+    /**
+     * The sum of every hand and deck hash.
+     */
+    private long stateHash;
+
+    /**
+     * The state hash saved at the start of a round for Brent's algorithm.
+     */
+    private long savedHash;
+
+    /**
+     * The face values of the hands in the saved state.
+     */
+    private final int[] savedHands;
+
+    /**
+     * The face values of the decks in the saved state, deck after deck from top to bottom.
+     */
+    private final int[] savedDecks;
+
+    /**
+     * The number of cards in each deck in the saved state.
+     */
+    private final int[] savedDeckSizes;
+
+    /**
+     * Constructs an engine for a pack of cards.
+     *
+     * @param pack the face values of the pack, in the order they are dealt
+     * @param noOfPlayers the number of players in the game
+     * @throws IllegalArgumentException if the pack does not have exactly 8n cards
+     */
+    public TurnBasedEngine(int[] pack, int noOfPlayers) {
+        if (noOfPlayers < 1 || pack.length != 8 * noOfPlayers) {
+            throw new IllegalArgumentException("A pack for " + noOfPlayers + " players needs "
+                    + (8 * noOfPlayers) + " cards but has " + pack.length);
+        }
+        this.noOfPlayers = noOfPlayers;
+        this.values = pack.clone();
+        this.hands = new int[4 * noOfPlayers];
+        this.next = new int[pack.length];
+        this.deckHead = new int[noOfPlayers];
+        this.deckTail = new int[noOfPlayers];
+        this.winnable = PackValidator.isWinnable(values);
+        this.handHash = new long[noOfPlayers];
+        this.deckHash = new long[noOfPlayers];
+        this.deckWeight = new long[noOfPlayers];
+        this.savedHands = new int[4 * noOfPlayers];
+        this.savedDecks = new int[4 * noOfPlayers];
+        this.savedDeckSizes = new int[noOfPlayers];
+        deal();
+    }
+
+    /**
+     * Converts a pack of Card objects to the face values used by the engine.
+     *
+     * @param pack the cards of the pack
+     * @return the face values of the cards, in order
+     */
+    public static int[] faceValues(List<Card> pack) {
+        int[] faceValues = new int[pack.size()];
+        for (int i = 0; i < faceValues.length; i++) {
+            faceValues[i] = pack.get(i).faceValue();
+        }
+        return faceValues;
+    }
+
+    /**
+     * Sets whether runs record the order in which players take their turns.
+     *
+     * @param recording {@code true} to record the schedule of each run
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Sets whether round-robin runs stop without a winner once the state at the start of a round repeats.
+     * Detection is on by default; it costs a few multiplications per turn.
+     *
+     * @param detectingCycles {@code true} to look for a repeated state
+     */
+    public void setCycleDetection(boolean detectingCycles) {
+        this.detectingCycles = detectingCycles;
+    }
+
+    /**
+     * Gets the order in which players took their turns during the last recorded run.
+     *
+     * @return the player indices, one per turn
+     */
+    public int[] getSchedule() {
+        return Arrays.copyOf(schedule, scheduleLength);
+    }
+
+    /**
+     * Plays the game round-robin until somebody wins or the default turn limit is reached.
+     *
+     * @return the result of the game
+     */
+    public GameResult run() {
+        return run(Schedule.ROUND_ROBIN, 0, DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Plays the game from the initial deal until somebody wins or the turn limit is reached.
+     * The game is abandoned without a winner straight away if the pack cannot be won, and,
+     * with cycle detection on, as soon as a round-robin game repeats a state.
+     *
+     * @param order the order in which players take their turns
+     * @param seed the seed of the random order, ignored for round-robin
+     * @param maxTurns the number of turns after which the game is abandoned without a winner
+     * @return the result of the game
+     */
+    public GameResult run(Schedule order, long seed, long maxTurns) {
+        long startTime = System.nanoTime();
+        hashing = detectingCycles && order == Schedule.ROUND_ROBIN;
+        deal();
+        scheduleLength = 0;
+        if (!winnable) {
+            hashing = false;
+            return new GameResult(noOfPlayers, 0, 0, System.nanoTime() - startTime);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int winner = 0;
+        long turns = 0;
+        int player = 0;
+        // Brent's algorithm: the state is saved after 1, 2, 4, ... rounds and compared at every round in between
+        long roundsSinceSave = 0;
+        long saveInterval = 1;
+        if (hashing) {
+            saveState();
+        }
+        while (winner == 0 && turns < maxTurns) {
+            if (order == Schedule.RANDOM) {
+                player = random.nextInt(noOfPlayers);
+            } else if (hashing && player == 0 && turns > 0) {
+                if (stateHash == savedHash && matchesSavedState()) {
+                    break;
+                }
+                if (++roundsSinceSave == saveInterval) {
+                    saveState();
+                    roundsSinceSave = 0;
+                    saveInterval *= 2;
+                }
+            }
+            // A player whose left deck is empty would wait, so they are skipped; with 4n cards
+            // spread over n decks at least one deck always has a card
+            if (deckHead[player] != NONE) {
+                turns++;
+                if (takeTurn(player)) {
+                    winner = player + 1;
+                }
+            }
+            if (order == Schedule.ROUND_ROBIN) {
+                player = player + 1 == noOfPlayers ? 0 : player + 1;
+            }
+        }
+        hashing = false;
+        return new GameResult(noOfPlayers, winner, turns, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Plays the game from the initial deal with the players taking turns in the given order.
+     *
+     * @param turnOrder the index of the player taking each turn, as returned by {@link #getSchedule()}
+     * @return the result of the game
+     * @throws IllegalStateException if a player in the order has nothing to draw
+     */
+    public GameResult replay(int[] turnOrder) {
+        long startTime = System.nanoTime();
+        deal();
+        scheduleLength = 0;
+        int winner = 0;
+        long turns = 0;
+        for (int i = 0; i < turnOrder.length && winner == 0; i++) {
+            int player = turnOrder[i] - 1;
+            if (deckHead[player] == NONE) {
+                throw new IllegalStateException("Turn " + (i + 1) + " of player " + turnOrder[i]
+                        + " has nothing to draw");
+            }
+            turns++;
+            if (takeTurn(player)) {
+                winner = player + 1;
+            }
+        }
+        return new GameResult(noOfPlayers, winner, turns, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Gets the face values of a player's hand in the current state of the game.
+     *
+     * @param playerIndex the index of the player
+     * @return the face values in hand order
+     */
+    public int[] handOf(int playerIndex) {
+        int[] hand = new int[4];
+        for (int i = 0; i < 4; i++) {
+            hand[i] = values[hands[4 * (playerIndex - 1) + i]];
+        }
+        return hand;
+    }
+
+    /**
+     * Gets the face values of a deck in the current state of the game.
+     *
+     * @param deckIndex the index of the deck
+     * @return the face values from top to bottom
+     */
+    public int[] deckOf(int deckIndex) {
+        int size = 0;
+        for (int card = deckHead[deckIndex - 1]; card != NONE; card = next[card]) {
+            size++;
+        }
+        int[] deck = new int[size];
+        int i = 0;
+        for (int card = deckHead[deckIndex - 1]; card != NONE; card = next[card]) {
+            deck[i++] = values[card];
+        }
+        return deck;
+    }
+
+    /**
+     * Deals the pack round-robin, as {@link CardGame} does: card k of the first half goes to
+     * player (k mod n) + 1 and card k of the second half to the bottom of deck (k mod n) + 1.
+     */
+    private void deal() {
+        int handCards = 4 * noOfPlayers;
+        for (int card = 0; card < handCards; card++) {
+            hands[4 * (card % noOfPlayers) + card / noOfPlayers] = card;
+        }
+        Arrays.fill(deckHead, NONE);
+        Arrays.fill(deckTail, NONE);
+        for (int card = handCards; card < values.length; card++) {
+            push((card - handCards) % noOfPlayers, card);
+        }
+        if (hashing) {
+            hashState();
+        }
+    }
+
+    /**
+     * Computes the hash of every hand and deck from scratch.
+     */
+    private void hashState() {
+        stateHash = 0;
+        for (int p = 0; p < noOfPlayers; p++) {
+            handHash[p] = hashHand(p);
+            long hash = 0;
+            long weight = 1;
+            for (int card = deckHead[p]; card != NONE; card = next[card]) {
+                hash += deckKey(p, values[card]) * weight;
+                weight *= POSITION_MULTIPLIER;
+            }
+            deckHash[p] = hash;
+            deckWeight[p] = weight;
+            stateHash += handHash[p] + hash;
+        }
+    }
+
+    /**
+     * Computes the hash of a player's hand.
+     *
+     * @param player the zero-based index of the player
+     * @return the sum of the keys of the cards in hand order
+     */
+    private long hashHand(int player) {
+        int base = 4 * player;
+        long hash = 0;
+        for (int i = 0; i < 4; i++) {
+            hash += mix(((long) base + i) << 32 | (values[hands[base + i]] & 0xFFFFFFFFL));
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the key of a card of a face value in a deck, before it is weighted by its depth.
+     *
+     * @param deck the zero-based index of the deck
+     * @param faceValue the face value of the card
+     * @return the key of the card
+     */
+    private static long deckKey(int deck, int faceValue) {
+        return mix(DECK_SALT + ((long) deck << 32 | (faceValue & 0xFFFFFFFFL)));
+    }
+
+    /**
+     * Scrambles the bits of a key, as the finaliser of SplitMix64 does.
+     *
+     * @param key the key
+     * @return the scrambled key
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * Computes the inverse of an odd number modulo 2^64 by Newton's iteration, each step of
+     * which doubles the number of correct low bits.
+     *
+     * @param odd the odd number
+     * @return the number whose product with {@code odd} is 1
+     */
+    private static long inverse(long odd) {
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse;
+    }
+
+    /**
+     * Saves the face values of every hand and deck, and the state hash, for Brent's algorithm.
+     */
+    private void saveState() {
+        savedHash = stateHash;
+        for (int i = 0; i < hands.length; i++) {
+            savedHands[i] = values[hands[i]];
+        }
+        int i = 0;
+        for (int p = 0; p < noOfPlayers; p++) {
+            int size = 0;
+            for (int card = deckHead[p]; card != NONE; card = next[card]) {
+                savedDecks[i++] = values[card];
+                size++;
+            }
+            savedDeckSizes[p] = size;
+        }
+    }
+
+    /**
+     * Checks whether every hand and deck holds the same face values, in the same order, as in the saved state.
+     *
+     * @return {@code true} if the state has repeated
+     */
+    private boolean matchesSavedState() {
+        for (int i = 0; i < hands.length; i++) {
+            if (savedHands[i] != values[hands[i]]) {
+                return false;
+            }
+        }
+        int i = 0;
+        for (int p = 0; p < noOfPlayers; p++) {
+            int size = 0;
+            for (int card = deckHead[p]; card != NONE; card = next[card]) {
+                if (size++ == savedDeckSizes[p] || savedDecks[i++] != values[card]) {
+                    return false;
+                }
+            }
+            if (size != savedDeckSizes[p]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plays one turn: the player draws the top card of their left deck, discards the first card
+     * that is not their own value to the bottom of their right deck, and checks for a win.
+     *
+     * @param player the zero-based index of the player
+     * @return {@code true} if the player's hand is now a winning hand
+     */
+    private boolean takeTurn(int player) {
+        if (recording) {
+            record(player + 1);
+        }
+        int drawn = pop(player);
+        int base = 4 * player;
+        int preferred = player + 1;
+        int keep = 0;
+        while (keep < 4 && values[hands[base + keep]] == preferred) {
+            keep++;
+        }
+        int discarded;
+        if (keep == 4) {
+            // Every card in hand is already wanted, so the drawn card goes straight on
+            discarded = drawn;
+        } else {
+            discarded = hands[base + keep];
+            for (int i = base + keep; i < base + 3; i++) {
+                hands[i] = hands[i + 1];
+            }
+            hands[base + 3] = drawn;
+        }
+        push(player + 1 == noOfPlayers ? 0 : player + 1, discarded);
+        if (hashing) {
+            stateHash -= handHash[player];
+            handHash[player] = hashHand(player);
+            stateHash += handHash[player];
+        }
+
+        int first = values[hands[base]];
+        return values[hands[base + 1]] == first && values[hands[base + 2]] == first
+                && values[hands[base + 3]] == first;
+    }
+
+    /**
+     * Removes the top card of a deck.
+     *
+     * @param deck the zero-based index of the deck
+     * @return the card that was on top
+     */
+    private int pop(int deck) {
+        int card = deckHead[deck];
+        deckHead[deck] = next[card];
+        if (deckHead[deck] == NONE) {
+            deckTail[deck] = NONE;
+        }
+        if (hashing) {
+            // Every card left moves up one place, which divides its weight by the multiplier
+            long hash = (deckHash[deck] - deckKey(deck, values[card])) * POSITION_INVERSE;
+            stateHash += hash - deckHash[deck];
+            deckHash[deck] = hash;
+            deckWeight[deck] *= POSITION_INVERSE;
+        }
+        return card;
+    }
+
+    /**
+     * Adds a card to the bottom of a deck.
+     *
+     * @param deck the zero-based index of the deck
+     * @param card the card to add
+     */
+    private void push(int deck, int card) {
+        next[card] = NONE;
+        if (deckTail[deck] == NONE) {
+            deckHead[deck] = card;
+        } else {
+            next[deckTail[deck]] = card;
+        }
+        deckTail[deck] = card;
+        if (hashing) {
+            long key = deckKey(deck, values[card]) * deckWeight[deck];
+            deckHash[deck] += key;
+            stateHash += key;
+            deckWeight[deck] *= POSITION_MULTIPLIER;
+        }
+    }
+
+    /**
+     * Appends a player to the recorded schedule.
+     *
+     * @param playerIndex the index of the player taking a turn
+     */
+    private void record(int playerIndex) {
+        if (scheduleLength == schedule.length) {
+            schedule = Arrays.copyOf(schedule, Math.max(16, schedule.length * 2));
+        }
+        schedule[scheduleLength++] = playerIndex;
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnBasedEngineTest {
+
+    /**
+     * A two player pack in which player 1 wins on their first turn.
+     */
+    private static final int[] PACK = {1, 2, 1, 3, 1, 4, 3, 4, 1, 3, 2, 2, 2, 3, 4, 4};
+
+    @Test
+    void testDealMatchesCardGame() {
+        TurnBasedEngine engine = new TurnBasedEngine(PACK, 2);
+        assertArrayEquals(new int[] {1, 1, 1, 3}, engine.handOf(1));
+        assertArrayEquals(new int[] {2, 3, 4, 4}, engine.handOf(2));
+        assertArrayEquals(new int[] {1, 2, 2, 4}, engine.deckOf(1));
+        assertArrayEquals(new int[] {3, 2, 3, 4}, engine.deckOf(2));
+    }
+
+    @Test
+    void testRoundRobinWin() {
+        TurnBasedEngine engine = new TurnBasedEngine(PACK, 2);
+        GameResult result = engine.run();
+        assertEquals(1, result.getWinnerIndex());
+        assertEquals(1, result.getTotalTurns());
+        assertArrayEquals(new int[] {1, 1, 1, 1}, engine.handOf(1));
+        assertArrayEquals(new int[] {3, 2, 3, 4, 3}, engine.deckOf(2));
+    }
+
+    @Test
+    void testRandomScheduleIsReproducible() {
+        int[] pack = TurnBasedEngine.faceValues(Tournament.generatePacks(1, 6, 99).get(0));
+        TurnBasedEngine engine = new TurnBasedEngine(pack, 6);
+        engine.setRecording(true);
+        GameResult first = engine.run(TurnBasedEngine.Schedule.RANDOM, 1234, 1_000_000);
+        int[] schedule = engine.getSchedule();
+        GameResult second = engine.run(TurnBasedEngine.Schedule.RANDOM, 1234, 1_000_000);
+        assertEquals(first.getWinnerIndex(), second.getWinnerIndex());
+        assertEquals(first.getTotalTurns(), second.getTotalTurns());
+        assertArrayEquals(schedule, engine.getSchedule());
+
+        GameResult replayed = engine.replay(schedule);
+        assertEquals(first.getWinnerIndex(), replayed.getWinnerIndex());
+        assertEquals(first.getTotalTurns(), replayed.getTotalTurns());
+    }
+
+    @Test
+    void testTurnLimitWithoutWinner() {
+        TurnBasedEngine engine = new TurnBasedEngine(PACK, 2);
+        GameResult result = engine.run(TurnBasedEngine.Schedule.ROUND_ROBIN, 0, 0);
+        assertFalse(result.hasWinner());
+        assertEquals(0, result.getTotalTurns());
+    }
+
+    @Test
+    void testRepeatedRoundRobinStateEndsGame() {
+        // Neither player can ever collect four equal cards, although there are plenty of threes
+        int[] pack = {2, 2, 3, 3, 1, 2, 1, 3, 3, 3, 3, 3, 3, 3, 3, 3};
+        TurnBasedEngine engine = new TurnBasedEngine(pack, 2);
+        GameResult detected = engine.run();
+        assertFalse(detected.hasWinner());
+        assertTrue(detected.getTotalTurns() < 100);
+
+        engine.setCycleDetection(false);
+        GameResult undetected = engine.run(TurnBasedEngine.Schedule.ROUND_ROBIN, 0, 100_000);
+        assertFalse(undetected.hasWinner());
+        assertEquals(100_000, undetected.getTotalTurns());
+    }
+
+    @Test
+    void testCycleDetectionKeepsResults() {
+        for (long seed = 0; seed < 20; seed++) {
+            int[] pack = TurnBasedEngine.faceValues(Tournament.generatePacks(1, 8, seed).get(0));
+            TurnBasedEngine engine = new TurnBasedEngine(pack, 8);
+            GameResult detected = engine.run();
+            engine.setCycleDetection(false);
+            GameResult undetected = engine.run();
+            assertEquals(undetected.getWinnerIndex(), detected.getWinnerIndex());
+            assertEquals(undetected.getTotalTurns(), detected.getTotalTurns());
+        }
+    }
+
+    @Test
+    void testUnwinnablePackTakesNoTurns() {
+        int[] pack = {1, 2, 3, 4, 5, 6, 7, 8, 1, 2, 3, 4, 5, 6, 7, 8};
+        GameResult result = new TurnBasedEngine(pack, 2).run(TurnBasedEngine.Schedule.RANDOM, 1, 1_000_000);
+        assertFalse(result.hasWinner());
+        assertEquals(0, result.getTotalTurns());
+    }
+}
@@ -0,0 +1,32 @@
+import cardgame.bench.DeckBenchmark;
+
+/**
+ * The decks passed around by {@link DeckBenchmark}.
+ */
+public class DeckOps implements DeckBenchmark.Ops {
+    /**
+     * The decks of the ring.
+     */
+    private CardDeck[] decks;
+
+    @Override
+    public void setUp(int noOfDecks, int cardsPerDeck) {
+        decks = new CardDeck[noOfDecks];
+        for (int i = 0; i < noOfDecks; i++) {
+            decks[i] = new CardDeck(i + 1);
+            for (int k = 0; k < cardsPerDeck; k++) {
+                decks[i].addCard(Card.of(k + 1));
+            }
+        }
+    }
+
+    @Override
+    public Object takeCard(int deck) {
+        return decks[deck].takeCard();
+    }
+
+    @Override
+    public void addCard(int deck, Object card) {
+        decks[deck].addCard((Card) card);
+    }
+}
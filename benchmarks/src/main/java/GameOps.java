@@ -0,0 +1,64 @@
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import cardgame.bench.GameBenchmark;
+
+/**
+ * The games played by {@link GameBenchmark}.
+ */
+public class GameOps implements GameBenchmark.Ops {
+    /**
+     * The packs, by index.
+     */
+    private int[][] packs;
+
+    /**
+     * The number of players in each game.
+     */
+    private int noOfPlayers;
+
+    @Override
+    public void setUp(int noOfPlayers, int count) {
+        this.noOfPlayers = noOfPlayers;
+        PackGenerator generator = new PackGenerator(noOfPlayers, 0);
+        packs = new int[count][];
+        for (int k = 0; k < count; k++) {
+            packs[k] = generator.pack(k);
+        }
+    }
+
+    @Override
+    public long playThreaded(int pack) {
+        CardGame game = new CardGame(DealtPack.of(packs[pack], noOfPlayers), Paths.get(""),
+                LogFormat.TEXT, LogLevel.NONE);
+        return game.run().getTotalTurns();
+    }
+
+    @Override
+    public long playSegmented(int pack) {
+        CardGame game = new CardGame(DealtPack.of(packs[pack], noOfPlayers), Paths.get(""),
+                LogFormat.TEXT, LogLevel.NONE);
+        return game.run(ExecutionMode.SEGMENTED).getTotalTurns();
+    }
+
+    @Override
+    public long playActors(int pack) {
+        CardGame game = new CardGame(DealtPack.of(packs[pack], noOfPlayers), Paths.get(""),
+                LogFormat.TEXT, LogLevel.NONE);
+        return game.run(ExecutionMode.ACTORS).getTotalTurns();
+    }
+
+    @Override
+    public long playTurnBased(int pack) {
+        return new TurnBasedEngine(packs[pack], noOfPlayers).run().getTotalTurns();
+    }
+
+    @Override
+    public long playLockstep() {
+        long turns = 0;
+        for (GameResult result : new LockstepEngine(Arrays.asList(packs), noOfPlayers).run()) {
+            turns += result.getTotalTurns();
+        }
+        return turns;
+    }
+}
@@ -0,0 +1,49 @@
+import java.nio.file.Paths;
+
+import cardgame.bench.LogBenchmark;
+
+/**
+ * The output sink measured by {@link LogBenchmark}.
+ */
+public class LogOps implements LogBenchmark.Ops {
+    /**
+     * The hand logged as the current hand on every turn.
+     */
+    private final int[] hand = {1, 1, 3, 7};
+
+    /**
+     * The sink of the player.
+     */
+    private OutputSink sink;
+
+    /**
+     * A log that recycles every chunk it is handed instead of writing it.
+     */
+    private static class DiscardingLog extends GameLog {
+        /**
+         * Constructs a log that never writes a file.
+         *
+         * @param format the format the sinks encode in
+         */
+        DiscardingLog(LogFormat format) {
+            super(Paths.get(""), format);
+        }
+
+        @Override
+        void publish(OutputSink sink, byte[] bytes, int length) {
+            sink.recycle(bytes);
+        }
+    }
+
+    @Override
+    public void setUp(String format) {
+        sink = new DiscardingLog(LogFormat.valueOf(format)).playerSink(1);
+    }
+
+    @Override
+    public void logTurn(int turn) {
+        sink.draw(turn, 1, 7, 1);
+        sink.discard(turn, 1, 4, 2);
+        sink.currentHand(turn, 1, hand, hand.length);
+    }
+}
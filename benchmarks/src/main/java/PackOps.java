@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import cardgame.bench.PackBenchmark;
+
+/**
+ * The pack file loaded by {@link PackBenchmark}.
+ */
+public class PackOps implements PackBenchmark.Ops {
+    /**
+     * The pack file.
+     */
+    private Path file;
+
+    /**
+     * The number of players the pack is for.
+     */
+    private int noOfPlayers;
+
+    @Override
+    public void setUp(int noOfPlayers) {
+        this.noOfPlayers = noOfPlayers;
+        PackGenerator generator = new PackGenerator(noOfPlayers, 0);
+        try {
+            file = Files.createTempFile("pack", ".txt");
+            generator.write(generator.pack(0), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object readAndValidate() {
+        ArrayList<Card> cards = CardGame.readPackFromFile(file.toString(), noOfPlayers);
+        if (!CardGame.validateInputPack(cards, noOfPlayers)) {
+            throw new IllegalStateException("Generated pack is invalid");
+        }
+        return cards;
+    }
+
+    @Override
+    public void tearDown() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+import java.nio.file.Paths;
+
+import cardgame.bench.PlayerBenchmark;
+
+/**
+ * The player measured by {@link PlayerBenchmark}.
+ */
+public class PlayerOps implements PlayerBenchmark.Ops {
+    /**
+     * The player, who prefers 1s but holds only one.
+     */
+    private Player player;
+
+    @Override
+    public Object setUp() {
+        PackGenerator generator = new PackGenerator(2, 0);
+        CardGame game = new CardGame(generator.dealtPack(0), Paths.get("."), LogFormat.TEXT, LogLevel.NONE);
+        player = new Player(1, new CardDeck(1), new CardDeck(2), game);
+        player.setHand(new int[] {1, 2, 3, 4});
+        return Card.of(5);
+    }
+
+    @Override
+    public void pickUpCard(Object card) {
+        player.pickUpCard((Card) card);
+    }
+
+    @Override
+    public Object dropCard() {
+        return player.dropCard();
+    }
+
+    @Override
+    public boolean checkForWinningHand() {
+        return player.checkForWinningHand();
+    }
+
+    @Override
+    public String handAsString() {
+        return player.handAsString();
+    }
+}
@@ -0,0 +1,33 @@
+package cardgame.bench;
+
+/**
+ * The Bridge class loads the code a benchmark drives.
+ * JMH only accepts benchmarks in a named package, while the game lives in the unnamed package,
+ * which a named package cannot import. Each benchmark therefore declares an interface of the
+ * operations it measures, implemented by a class in the unnamed package that is loaded by name.
+ * Every benchmark has exactly one implementation, so the interface calls are inlined.
+ */
+final class Bridge {
+    /**
+     * Prevents instantiation; the class only holds a static helper.
+     */
+    private Bridge() {
+    }
+
+    /**
+     * Creates an instance of a class in the unnamed package.
+     *
+     * @param className the name of the class, which must have a public no-argument constructor
+     * @param type the interface the class implements
+     * @param <T> the type of the interface
+     * @return the new instance
+     * @throws IllegalStateException if the class cannot be loaded or instantiated
+     */
+    static <T> T load(String className, Class<T> type) {
+        try {
+            return type.cast(Class.forName(className).getConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load " + className, e);
+        }
+    }
+}
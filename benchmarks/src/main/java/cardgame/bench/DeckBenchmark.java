@@ -0,0 +1,146 @@
+package cardgame.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures passing cards through {@code CardDeck.takeCard} and {@code CardDeck.addCard} the way
+ * players do: each thread takes from its own deck and adds to the next deck of a ring.
+ * With one thread the deck is its own neighbour, so nothing ever waits; with two or more threads
+ * the decks are handed between threads and players park while their deck is empty or full.
+ * The score is in cards passed per microsecond, over all threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+    /**
+     * The number of cards passed by all threads together in one invocation.
+     */
+    private static final int CARDS_PER_INVOCATION = 1 << 16;
+
+    /**
+     * The number of cards each deck starts with, as in a game.
+     */
+    private static final int CARDS_PER_DECK = 4;
+
+    /**
+     * The operations of a ring of decks, implemented in the unnamed package.
+     */
+    public interface Ops {
+        /**
+         * Creates a ring of decks, each holding the same number of cards.
+         *
+         * @param decks the number of decks
+         * @param cardsPerDeck the number of cards each deck starts with
+         */
+        void setUp(int decks, int cardsPerDeck);
+
+        /**
+         * Takes a card from a deck with {@code takeCard}, waiting while it is empty.
+         *
+         * @param deck the position of the deck in the ring
+         * @return the card
+         */
+        Object takeCard(int deck);
+
+        /**
+         * Adds a card to a deck with {@code addCard}, waiting while it is full.
+         *
+         * @param deck the position of the deck in the ring
+         * @param card the card
+         */
+        void addCard(int deck, Object card);
+    }
+
+    /**
+     * The number of threads, and decks, in the ring.
+     */
+    @Param({"1", "2", "4", "16"})
+    public int threads;
+
+    /**
+     * The ring of decks.
+     */
+    private Ops ops;
+
+    /**
+     * The threads passing the cards.
+     */
+    private ExecutorService executor;
+
+    /**
+     * One task per thread, each passing its share of the cards.
+     */
+    private List<Callable<Void>> tasks;
+
+    /**
+     * Creates the ring of decks and the threads.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ops = Bridge.load("DeckOps", Ops.class);
+        ops.setUp(threads, CARDS_PER_DECK);
+        executor = Executors.newFixedThreadPool(threads);
+        tasks = new ArrayList<>(threads);
+        int cardsPerThread = CARDS_PER_INVOCATION / threads;
+        for (int i = 0; i < threads; i++) {
+            int deck = i;
+            int next = (i + 1) % threads;
+            tasks.add(() -> {
+                for (int k = 0; k < cardsPerThread; k++) {
+                    ops.addCard(next, ops.takeCard(deck));
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Stops the threads.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Passes {@link #CARDS_PER_INVOCATION} cards around the ring.
+     * Every thread takes and adds the same number of cards, so each deck ends the invocation with
+     * as many cards as it started with and no thread is left waiting.
+     *
+     * @throws InterruptedException if interrupted while waiting for the threads
+     * @throws ExecutionException if a thread fails
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS_PER_INVOCATION)
+    public void passCards() throws InterruptedException, ExecutionException {
+        for (Future<Void> done : executor.invokeAll(tasks)) {
+            done.get();
+        }
+    }
+}
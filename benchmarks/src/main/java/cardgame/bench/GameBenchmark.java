@@ -0,0 +1,170 @@
+package cardgame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures whole games, from dealing a generated pack to the game returning its result.
+ * The threaded game runs one platform thread per player and writes no output files, so the score
+ * is the cost of the players, their decks and the end of the game; the segmented game runs the same
+ * players with one thread per core, each taking the turns of a stretch of the ring; the actor game
+ * runs them on one thread per core, only scheduling players that a card has reached; the turn-based
+ * game plays the same packs on one thread, as a bound on what the threads add; the lockstep games
+ * play all {@link #PACKS} packs at once on one thread with vector instructions, scored per game.
+ * Every other invocation plays the next of the packs, so one lucky deal cannot decide the score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameBenchmark {
+    /**
+     * The number of different packs played in turn.
+     */
+    public static final int PACKS = 16;
+
+    /**
+     * The games, implemented in the unnamed package.
+     */
+    public interface Ops {
+        /**
+         * Generates the packs the games are played with.
+         *
+         * @param noOfPlayers the number of players
+         * @param packs the number of packs
+         */
+        void setUp(int noOfPlayers, int packs);
+
+        /**
+         * Plays a game with a thread per player.
+         *
+         * @param pack the index of the pack to play
+         * @return the total number of turns taken
+         */
+        long playThreaded(int pack);
+
+        /**
+         * Plays a game with one thread per core, each running a segment of the ring of players.
+         *
+         * @param pack the index of the pack to play
+         * @return the total number of turns taken
+         */
+        long playSegmented(int pack);
+
+        /**
+         * Plays a game with the players as actors on one thread per core.
+         *
+         * @param pack the index of the pack to play
+         * @return the total number of turns taken
+         */
+        long playActors(int pack);
+
+        /**
+         * Plays a game with the turn-based engine.
+         *
+         * @param pack the index of the pack to play
+         * @return the total number of turns taken
+         */
+        long playTurnBased(int pack);
+
+        /**
+         * Plays a game on every pack at once with the lockstep engine.
+         *
+         * @return the total number of turns taken in all the games
+         */
+        long playLockstep();
+    }
+
+    /**
+     * The number of players in each game.
+     */
+    @Param({"4", "64", "1024"})
+    public int players;
+
+    /**
+     * The games.
+     */
+    private Ops ops;
+
+    /**
+     * The number of games played so far.
+     */
+    private int games;
+
+    /**
+     * Generates the packs.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ops = Bridge.load("GameOps", Ops.class);
+        ops.setUp(players, PACKS);
+    }
+
+    /**
+     * Plays a game with a thread per player.
+     *
+     * @return the total number of turns taken
+     */
+    @Benchmark
+    public long threadedGame() {
+        return ops.playThreaded(games++ % PACKS);
+    }
+
+    /**
+     * Plays a game with the ring of players split into one segment per core.
+     *
+     * @return the total number of turns taken
+     */
+    @Benchmark
+    public long segmentedGame() {
+        return ops.playSegmented(games++ % PACKS);
+    }
+
+    /**
+     * Plays a game with the players as actors on one thread per core.
+     *
+     * @return the total number of turns taken
+     */
+    @Benchmark
+    public long actorGame() {
+        return ops.playActors(games++ % PACKS);
+    }
+
+    /**
+     * Plays a game on one thread, the players taking turns in order.
+     *
+     * @return the total number of turns taken
+     */
+    @Benchmark
+    public long turnBasedGame() {
+        return ops.playTurnBased(games++ % PACKS);
+    }
+
+    /**
+     * Plays a game on every pack at once, the games advancing together in the lanes of vectors.
+     * The Vector API is an incubator module, so the forked JVM has to add it.
+     *
+     * @return the total number of turns taken in all the games
+     */
+    @Benchmark
+    @OperationsPerInvocation(PACKS)
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public long lockstepGames() {
+        return ops.playLockstep();
+    }
+}
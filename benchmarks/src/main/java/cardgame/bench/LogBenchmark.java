@@ -0,0 +1,81 @@
+package cardgame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures logging one turn of a player: the draw, discard and current hand lines a player writes
+ * through its output sink. Filled chunks are recycled straight away instead of being written, so
+ * the score is the cost paid on the player's thread, not the speed of the disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+    /**
+     * The logging of a player, implemented in the unnamed package.
+     */
+    public interface Ops {
+        /**
+         * Creates the output sink of a player.
+         *
+         * @param format the name of the log format
+         */
+        void setUp(String format);
+
+        /**
+         * Logs the draw, discard and current hand of a turn.
+         *
+         * @param turn the number of the turn
+         */
+        void logTurn(int turn);
+    }
+
+    /**
+     * The format the turns are logged in.
+     */
+    @Param({"TEXT", "BINARY"})
+    public String format;
+
+    /**
+     * The sink of the player.
+     */
+    private Ops ops;
+
+    /**
+     * The number of the next turn, so the digits written change like in a game.
+     */
+    private int turn;
+
+    /**
+     * Creates the sink.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ops = Bridge.load("LogOps", Ops.class);
+        ops.setUp(format);
+    }
+
+    /**
+     * Logs one turn.
+     */
+    @Benchmark
+    public void logTurn() {
+        ops.logTurn(++turn);
+    }
+}
@@ -0,0 +1,91 @@
+package cardgame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a pack file: {@code CardGame.readPackFromFile} followed by
+ * {@code CardGame.validateInputPack}, as the game does before dealing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackBenchmark {
+    /**
+     * The loading of a pack, implemented in the unnamed package.
+     */
+    public interface Ops {
+        /**
+         * Writes a generated pack to a temporary file.
+         *
+         * @param noOfPlayers the number of players the pack is for
+         */
+        void setUp(int noOfPlayers);
+
+        /**
+         * Reads and validates the pack file.
+         *
+         * @return the cards of the pack
+         */
+        Object readAndValidate();
+
+        /**
+         * Deletes the pack file.
+         */
+        void tearDown();
+    }
+
+    /**
+     * The number of players the pack is for; a pack holds eight cards per player.
+     */
+    @Param({"4", "64", "1024"})
+    public int players;
+
+    /**
+     * The pack file.
+     */
+    private Ops ops;
+
+    /**
+     * Writes the pack file.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ops = Bridge.load("PackOps", Ops.class);
+        ops.setUp(players);
+    }
+
+    /**
+     * Deletes the pack file.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ops.tearDown();
+    }
+
+    /**
+     * Reads and validates the pack.
+     *
+     * @return the cards of the pack
+     */
+    @Benchmark
+    public Object readAndValidate() {
+        return ops.readAndValidate();
+    }
+}
@@ -0,0 +1,119 @@
+package cardgame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures what a player does with its hand on every turn: picking up the drawn card and dropping
+ * one, checking for a winning hand, and rendering the hand for the current hand line.
+ * The player never wins, so the hand keeps cycling through the same cards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+    /**
+     * The operations of a player, implemented in the unnamed package.
+     */
+    public interface Ops {
+        /**
+         * Creates a player in a game that writes no output, holding a hand that cannot win.
+         *
+         * @return a card to pick up that is not in the hand
+         */
+        Object setUp();
+
+        /**
+         * Adds a card to the hand with {@code Player.pickUpCard}.
+         *
+         * @param card the card
+         */
+        void pickUpCard(Object card);
+
+        /**
+         * Removes a card from the hand with {@code Player.dropCard}.
+         *
+         * @return the dropped card
+         */
+        Object dropCard();
+
+        /**
+         * Checks the hand with {@code Player.checkForWinningHand}.
+         *
+         * @return whether the hand wins
+         */
+        boolean checkForWinningHand();
+
+        /**
+         * Renders the hand with {@code Player.handAsString}.
+         *
+         * @return the hand as a string
+         */
+        String handAsString();
+    }
+
+    /**
+     * The player.
+     */
+    private Ops ops;
+
+    /**
+     * The card the player picks up next.
+     */
+    private Object card;
+
+    /**
+     * Creates the player.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ops = Bridge.load("PlayerOps", Ops.class);
+        card = ops.setUp();
+    }
+
+    /**
+     * Picks up a card and drops one, which is picked up again next time.
+     *
+     * @return the dropped card
+     */
+    @Benchmark
+    public Object pickUpAndDropCard() {
+        ops.pickUpCard(card);
+        card = ops.dropCard();
+        return card;
+    }
+
+    /**
+     * Checks whether the hand wins.
+     *
+     * @return whether the hand wins
+     */
+    @Benchmark
+    public boolean checkForWinningHand() {
+        return ops.checkForWinningHand();
+    }
+
+    /**
+     * Renders the hand as a string.
+     *
+     * @return the hand as a string
+     */
+    @Benchmark
+    public String handAsString() {
+        return ops.handAsString();
+    }
+}